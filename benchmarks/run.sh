@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Builds and runs the JMH suite with the GC profiler (allocation rate and bytes per
+# operation) and writes the results as JSON to benchmarks/results/<commit>-<time>.json.
+# Extra arguments go to JMH, e.g. a benchmark regex: benchmarks/run.sh PriceService
+# Compare two runs:
+#   java -cp benchmarks/target/benchmarks.jar org.example.proiect.benchmarks.CompareResults old.json new.json
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+if command -v mvn >/dev/null; then mvn=(mvn); else mvn=(sh ./mvnw); fi
+"${mvn[@]}" -B -q -f benchmarks/pom.xml package
+
+mkdir -p benchmarks/results
+commit=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+output="benchmarks/results/${commit}-$(date +%Y%m%d-%H%M%S).json"
+
+java -jar benchmarks/target/benchmarks.jar -prof gc -rf json -rff "$output" "$@"
+echo "Results written to $output"
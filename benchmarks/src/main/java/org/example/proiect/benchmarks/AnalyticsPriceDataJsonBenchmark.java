@@ -0,0 +1,89 @@
+package org.example.proiect.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.proiect.dto.AnalyticsPriceData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request body binding of {@code POST /api/analytics/price} and {@code /prices/batch}:
+ * Jackson deserialization of ticks as the analytics service sends them (snake_case
+ * fields, UTC timestamps with nanoseconds), using an {@link ObjectMapper} configured
+ * like Spring Boot's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsPriceDataJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private byte[] tick;
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({"10", "100", "1000"})
+        private int size;
+
+        private byte[] json;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            StringJoiner batch = new StringJoiner(",", "[", "]");
+            for (int i = 0; i < size; i++) {
+                batch.add(tick("SYM" + i, i % 50 == 0));
+            }
+            json = batch.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, AnalyticsPriceData.class);
+        tick = tick("AAPL", false).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public AnalyticsPriceData single() throws IOException {
+        return objectMapper.readValue(tick, AnalyticsPriceData.class);
+    }
+
+    @Benchmark
+    public List<AnalyticsPriceData> batch(Batch batch) throws IOException {
+        return objectMapper.readValue(batch.json, listType);
+    }
+
+    private static String tick(String ticker, boolean anomaly) {
+        return """
+                {"ticker":"%s","price":187.4215339201,"volume":1250000.0,\
+                "moving_average_5":186.98,"moving_average_20":185.11,"percent_change":0.4213,\
+                "timestamp":"2026-01-15T14:30:05.123456789Z","is_anomaly":%s,\
+                "anomaly_type":%s,"anomaly_message":%s}"""
+                .formatted(ticker, anomaly,
+                        anomaly ? "\"SPIKE_UP\"" : "null",
+                        anomaly ? "\"Price spiked 5.2% above the 20-tick average\"" : "null");
+    }
+}
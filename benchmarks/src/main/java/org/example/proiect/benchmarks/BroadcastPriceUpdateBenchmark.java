@@ -0,0 +1,143 @@
+package org.example.proiect.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.service.PriceStreamService;
+import org.example.proiect.service.WebSocketService;
+import org.example.proiect.websocket.FilteredPriceBroadcaster;
+import org.example.proiect.websocket.FilteredPriceSubscriptionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link WebSocketService#broadcastPriceUpdate} against the real in-memory STOMP broker
+ * with a growing number of sessions subscribed to {@code /topic/prices}. Channels are
+ * synchronous and the client outbound channel only counts messages, so the score is the
+ * conversion and per-subscriber fan-out cost on the calling thread, without socket I/O.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadcastPriceUpdateBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    private int subscribers;
+
+    private SimpleBrokerMessageHandler broker;
+    private PriceStreamService priceStreamService;
+    private WebSocketService webSocketService;
+    private PriceDto price;
+    private long delivered;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        MessageChannel clientOutboundChannel = (message, timeout) -> {
+            delivered++;
+            return true;
+        };
+        ExecutorSubscribableChannel clientInboundChannel = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        broker = new SimpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel, brokerChannel,
+                List.of("/topic", "/queue"));
+        broker.start();
+        for (int i = 0; i < subscribers; i++) {
+            // The broker only delivers to connected sessions
+            broker.handleMessage(message(SimpMessageType.CONNECT, "session-" + i, null));
+            broker.handleMessage(message(SimpMessageType.SUBSCRIBE, "session-" + i, "/topic/prices"));
+        }
+
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messagingTemplate.setMessageConverter(converter);
+
+        // No SSE or filtered subscribers: those paths return after their bookkeeping
+        priceStreamService = new PriceStreamService(new SimpleMeterRegistry());
+        set(priceStreamService, "replayBufferSize", 1024);
+        set(priceStreamService, "dispatchQueueCapacity", 10_000);
+        priceStreamService.init();
+        FilteredPriceBroadcaster filteredPriceBroadcaster = new FilteredPriceBroadcaster(
+                new FilteredPriceSubscriptionRegistry(), clientOutboundChannel, objectMapper);
+
+        webSocketService = new WebSocketService(messagingTemplate, priceStreamService, filteredPriceBroadcaster);
+        price = PriceDto.builder()
+                .id(123_456L)
+                .ticker("AAPL")
+                .symbolName("Apple Inc.")
+                .symbolType("STOCK")
+                .price(new BigDecimal("187.42150000"))
+                .volume(new BigDecimal("1250000.00000000"))
+                .movingAverage5(new BigDecimal("186.98000000"))
+                .movingAverage20(new BigDecimal("185.11000000"))
+                .percentChange(new BigDecimal("0.4213"))
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        // Skip the CONNECT_ACKs
+        delivered = 0;
+        webSocketService.broadcastPriceUpdate(price);
+        if (delivered != subscribers) {
+            throw new IllegalStateException("Expected " + subscribers + " deliveries, got " + delivered);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broker.stop();
+        priceStreamService.shutdown();
+    }
+
+    @Benchmark
+    public long broadcastPriceUpdate() {
+        webSocketService.broadcastPriceUpdate(price);
+        return delivered;
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field f = target.getClass().getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.proiect.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (as written by {@code run.sh}) benchmark by
+ * benchmark: score and allocated bytes per operation, with the change relative to the
+ * baseline. Changes within the baseline's error margin are marked with {@code ~}.
+ * <p>
+ * Usage: {@code java -cp benchmarks/target/benchmarks.jar
+ * org.example.proiect.benchmarks.CompareResults baseline.json current.json}
+ */
+public final class CompareResults {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private record Result(double score, double error, String unit, double allocatedBytes) {}
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s %12s %12s%n",
+                "Benchmark", "Baseline", "Current", "Change", "B/op before", "B/op after");
+        current.forEach((name, result) -> {
+            Result before = baseline.get(name);
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %12s %12.0f%n",
+                        name, "-", result.score(), "new", "-", result.allocatedBytes());
+                return;
+            }
+            double change = (result.score() - before.score()) / before.score() * 100;
+            boolean withinError = Math.abs(result.score() - before.score()) <= before.error();
+            System.out.printf("%-90s %14.3f %14.3f %8.1f%%%s %12.0f %12.0f%n",
+                    name, before.score(), result.score(), change, withinError ? "~" : " ",
+                    before.allocatedBytes(), result.allocatedBytes());
+        });
+        baseline.keySet().stream()
+                .filter(name -> !current.containsKey(name))
+                .forEach(name -> System.out.printf("%-90s %14.3f %14s %9s%n",
+                        name, baseline.get(name).score(), "-", "removed"));
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode primary = run.path("primaryMetric");
+            double error = primary.path("scoreError").asDouble(0);
+            results.put(name(run), new Result(
+                    primary.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    primary.path("scoreUnit").asText(),
+                    allocatedBytes(run.path("secondaryMetrics"))));
+        }
+        return results;
+    }
+
+    private static String name(JsonNode run) {
+        StringBuilder name = new StringBuilder(run.path("benchmark").asText()
+                .replace("org.example.proiect.benchmarks.", ""));
+        Map<String, String> params = new TreeMap<>();
+        run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        params.forEach((key, value) -> name.append(' ').append(key).append('=').append(value));
+        return name.toString();
+    }
+
+    // Older JMH versions prefix secondary metric names with a middle dot
+    private static double allocatedBytes(JsonNode secondaryMetrics) {
+        var fields = secondaryMetrics.fields();
+        while (fields.hasNext()) {
+            var metric = fields.next();
+            if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+}
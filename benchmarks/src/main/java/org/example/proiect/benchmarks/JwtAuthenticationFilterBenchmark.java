@@ -0,0 +1,104 @@
+package org.example.proiect.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.proiect.security.JwtAuthenticationFilter;
+import org.example.proiect.security.JwtService;
+import org.example.proiect.security.TokenAuthenticator;
+import org.example.proiect.security.TokenEpochs;
+import org.example.proiect.security.UserDetailsCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request in {@link JwtAuthenticationFilter}: without caches,
+ * with the verified-claims and user caches, and with stateless tokens. The user lookup is
+ * an in-memory stub, so the uncached case measures token parsing and verification, not
+ * the database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"uncached", "cached", "stateless"})
+    private String mode;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        UserDetails user = User.withUsername("bench")
+                .password("{noop}secret")
+                .authorities("ROLE_USER")
+                .build();
+        UserDetailsService userDetailsService = username -> user;
+
+        boolean cached = !mode.equals("uncached");
+        boolean stateless = mode.equals("stateless");
+
+        // Epoch lookups only happen when issuing stateless tokens; all users are at epoch 0
+        TokenEpochs tokenEpochs = new TokenEpochs(null) {
+            @Override
+            public int forNewToken(String username) {
+                return 0;
+            }
+        };
+
+        JwtService jwtService = new JwtService(new SimpleMeterRegistry(), tokenEpochs);
+        set(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        set(jwtService, "cacheMaxEntries", cached ? 10_000 : 0);
+        set(jwtService, "stateless", stateless);
+        jwtService.init();
+
+        UserDetailsCache userDetailsCache = new UserDetailsCache(userDetailsService);
+        set(userDetailsCache, "ttlMillis", 30_000L);
+        set(userDetailsCache, "maxEntries", cached ? 10_000 : 0);
+        userDetailsCache.init();
+
+        TokenAuthenticator tokenAuthenticator = new TokenAuthenticator(jwtService, userDetailsCache, tokenEpochs);
+        set(tokenAuthenticator, "stateless", stateless);
+
+        filter = new JwtAuthenticationFilter(tokenAuthenticator);
+        request = new MockHttpServletRequest("GET", "/api/prices");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(user));
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        // OncePerRequestFilter marks the request as filtered
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field f = target.getClass().getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.proiect.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.proiect.security.JwtService;
+import org.example.proiect.security.TokenEpochs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtService} on its own, without the filter around it: parsing and signature
+ * verification of a token with and without the verified-claims cache, and the validity
+ * check against the user.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"uncached", "cached"})
+    private String mode;
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        user = User.withUsername("bench")
+                .password("{noop}secret")
+                .authorities("ROLE_USER")
+                .build();
+
+        TokenEpochs tokenEpochs = new TokenEpochs(null) {
+            @Override
+            public int forNewToken(String username) {
+                return 0;
+            }
+        };
+
+        jwtService = new JwtService(new SimpleMeterRegistry(), tokenEpochs);
+        set(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        set(jwtService, "cacheMaxEntries", mode.equals("cached") ? 10_000 : 0);
+        jwtService.init();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public boolean verifyAndValidate() {
+        return jwtService.isTokenValid(jwtService.verify(token), user);
+    }
+
+    private static void set(Object target, String field, Object value) throws ReflectiveOperationException {
+        Field f = target.getClass().getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(target, value);
+    }
+}
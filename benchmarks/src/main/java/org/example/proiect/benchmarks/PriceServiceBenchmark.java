@@ -0,0 +1,97 @@
+package org.example.proiect.benchmarks;
+
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.model.Alert;
+import org.example.proiect.model.Price;
+import org.example.proiect.model.Symbol;
+import org.example.proiect.service.PriceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick mapping work in {@link PriceService}: entity to DTO and anomaly type to alert
+ * type. Both are private, so they are called through method handles, which the JIT
+ * inlines like a direct call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceServiceBenchmark {
+
+    private static final MethodHandle TO_DTO;
+    private static final MethodHandle DETERMINE_ALERT_TYPE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(PriceService.class, MethodHandles.lookup());
+            TO_DTO = lookup.findVirtual(PriceService.class, "toDto",
+                    MethodType.methodType(PriceDto.class, Price.class));
+            DETERMINE_ALERT_TYPE = lookup.findVirtual(PriceService.class, "determineAlertType",
+                    MethodType.methodType(Alert.AlertType.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Every branch of determineAlertType, including case folding and the fallbacks
+    private static final String[] ANOMALY_TYPES = {"SPIKE_UP", "spike_down", "VOLUME_SURGE", "GAP", null};
+
+    private PriceService priceService;
+    private Price price;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Neither method touches a collaborator
+        Constructor<?> constructor = PriceService.class.getDeclaredConstructors()[0];
+        priceService = (PriceService) constructor.newInstance(new Object[constructor.getParameterCount()]);
+
+        Symbol symbol = Symbol.builder()
+                .id(1L)
+                .ticker("AAPL")
+                .name("Apple Inc.")
+                .type(Symbol.AssetType.STOCK)
+                .build();
+        price = Price.builder()
+                .id(123_456L)
+                .symbol(symbol)
+                .price(new BigDecimal("187.42150000"))
+                .volume(new BigDecimal("1250000.00000000"))
+                .movingAverage5(new BigDecimal("186.98000000"))
+                .movingAverage20(new BigDecimal("185.11000000"))
+                .percentChange(new BigDecimal("0.4213"))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public PriceDto toDto() throws Throwable {
+        return (PriceDto) TO_DTO.invokeExact(priceService, price);
+    }
+
+    @Benchmark
+    public Alert.AlertType determineAlertType() throws Throwable {
+        String anomalyType = ANOMALY_TYPES[next++ % ANOMALY_TYPES.length];
+        return (Alert.AlertType) DETERMINE_ALERT_TYPE.invokeExact(priceService, anomalyType);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.proiect.benchmarks;
+
+import org.example.proiect.alerting.ThresholdRuleIndex;
+import org.example.proiect.model.AlertRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of threshold rule evaluation with 100k active rules, against a linear scan
+ * over the same rules. Ticks are a random walk of roughly 0.1% per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThresholdRuleIndexBenchmark {
+
+    private static final AlertRule.RuleType[] TYPES = AlertRule.RuleType.values();
+
+    @Param("100000")
+    private int rules;
+
+    @Param({"1", "50"})
+    private int tickers;
+
+    private ThresholdRuleIndex index;
+    private List<ThresholdRuleIndex.Rule> allRules;
+    // Thresholds as doubles by rule id, so the linear scan compares primitives like the index does
+    private double[] thresholds;
+    private String[] tickerNames;
+    private double[] lastPrice;
+    private double[] lastChange;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        index = new ThresholdRuleIndex();
+        allRules = new ArrayList<>(rules);
+        thresholds = new double[rules];
+        tickerNames = new String[tickers];
+        lastPrice = new double[tickers];
+        lastChange = new double[tickers];
+        for (int t = 0; t < tickers; t++) {
+            tickerNames[t] = "SYM" + t;
+            lastPrice[t] = 100.0;
+        }
+        for (int i = 0; i < rules; i++) {
+            AlertRule.RuleType type = TYPES[i % TYPES.length];
+            double threshold = switch (type) {
+                case PRICE_ABOVE, PRICE_BELOW -> 50.0 + random.nextDouble() * 100.0;
+                case PERCENT_CHANGE_ABOVE, PERCENT_CHANGE_BELOW -> random.nextDouble() * 20.0 - 10.0;
+            };
+            ThresholdRuleIndex.Rule rule = new ThresholdRuleIndex.Rule(i, tickerNames[i % tickers], type,
+                    BigDecimal.valueOf(threshold), i, "user" + i);
+            allRules.add(rule);
+            thresholds[i] = threshold;
+            index.add(rule);
+        }
+    }
+
+    @Benchmark
+    public List<ThresholdRuleIndex.Rule> indexed() {
+        int t = random.nextInt(tickers);
+        double price = nextPrice(t);
+        return index.evaluate(tickerNames[t], price, lastChange[t]);
+    }
+
+    @Benchmark
+    public List<ThresholdRuleIndex.Rule> linearScan() {
+        int t = random.nextInt(tickers);
+        double previous = lastPrice[t];
+        double previousChange = lastChange[t];
+        double price = nextPrice(t);
+        double change = lastChange[t];
+        String ticker = tickerNames[t];
+        List<ThresholdRuleIndex.Rule> crossed = new ArrayList<>();
+        for (ThresholdRuleIndex.Rule rule : allRules) {
+            if (!rule.ticker().equals(ticker)) {
+                continue;
+            }
+            double threshold = thresholds[(int) rule.id()];
+            boolean hit = switch (rule.type()) {
+                case PRICE_ABOVE -> previous < threshold && price >= threshold;
+                case PRICE_BELOW -> previous > threshold && price <= threshold;
+                case PERCENT_CHANGE_ABOVE -> previousChange < threshold && change >= threshold;
+                case PERCENT_CHANGE_BELOW -> previousChange > threshold && change <= threshold;
+            };
+            if (hit) {
+                crossed.add(rule);
+            }
+        }
+        return crossed;
+    }
+
+    private double nextPrice(int t) {
+        double previous = lastPrice[t];
+        double price = previous * (1.0 + (random.nextDouble() - 0.5) * 0.002);
+        lastPrice[t] = price;
+        lastChange[t] = (price - previous) / previous * 100.0;
+        return price;
+    }
+}
@@ -16,7 +16,7 @@ import {
 
 export default function Dashboard() {
   const { username, logout } = useAuth();
-  const { connected, prices: wsPrices, alerts: wsAlerts } = useWebSocket();
+  const { connected, prices: wsPrices, alerts: wsAlerts, unreadCount: wsUnreadCount } = useWebSocket();
   const [prices, setPrices] = useState<Price[]>([]);
   const [alerts, setAlerts] = useState<Alert[]>([]);
   const [selectedSymbol, setSelectedSymbol] = useState<string | null>(null);
@@ -43,10 +43,15 @@ export default function Dashboard() {
         const newAlerts = [...wsAlerts, ...prev];
         return newAlerts.slice(0, 50);
       });
-      setUnreadCount((prev) => prev + wsAlerts.filter((a) => !a.isRead).length);
     }
   }, [wsAlerts]);
 
+  useEffect(() => {
+    if (wsUnreadCount !== null) {
+      setUnreadCount(wsUnreadCount);
+    }
+  }, [wsUnreadCount]);
+
   const loadData = async () => {
     setLoading(true);
     try {
@@ -6,6 +6,7 @@ export function useWebSocket() {
   const [connected, setConnected] = useState(false);
   const [prices, setPrices] = useState<Map<string, Price>>(new Map());
   const [alerts, setAlerts] = useState<Alert[]>([]);
+  const [unreadCount, setUnreadCount] = useState<number | null>(null);
 
   useEffect(() => {
     wsService.connect();
@@ -26,10 +27,15 @@ export function useWebSocket() {
       setAlerts(prev => [alert, ...prev].slice(0, 50));
     });
 
+    const unsubUnreadCount = wsService.onUnreadCount((count: number) => {
+      setUnreadCount(count);
+    });
+
     return () => {
       clearInterval(checkConnection);
       unsubPrice();
       unsubAlert();
+      unsubUnreadCount();
       wsService.disconnect();
     };
   }, []);
@@ -42,6 +48,7 @@ export function useWebSocket() {
     connected,
     prices: Array.from(prices.values()),
     alerts,
+    unreadCount,
     subscribeToSymbol,
   };
 }
@@ -86,6 +86,9 @@ export const pricesApi = {
   getHistory: (ticker: string, limit = 100) =>
     api.get<Price[]>(`/api/prices/${ticker}/history?limit=${limit}`),
 
+  getHistories: (tickers: string[], limit = 100) =>
+    api.get<Record<string, Price[]>>(`/api/prices/history?tickers=${tickers.join(',')}&limit=${limit}`),
+
   getVariations: (ticker: string, hours = 24) =>
     api.get<Price[]>(`/api/prices/${ticker}/variations?hours=${hours}`),
 };
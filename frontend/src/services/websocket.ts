@@ -5,11 +5,19 @@ const WS_URL = import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws';
 
 export type PriceUpdateHandler = (price: any) => void;
 export type AlertHandler = (alert: any) => void;
+export type UnreadCountHandler = (count: number) => void;
+
+export interface PriceFilter {
+  minPercentChange?: number;
+  assetTypes?: string[];
+  tickers?: string[];
+}
 
 class WebSocketService {
   private client: Client | null = null;
   private priceHandlers: PriceUpdateHandler[] = [];
   private alertHandlers: AlertHandler[] = [];
+  private unreadCountHandlers: UnreadCountHandler[] = [];
   private connected = false;
 
   connect() {
@@ -17,8 +25,12 @@ class WebSocketService {
       return;
     }
 
+    // The token authenticates the session for per-user queues; public topics work without it
+    const token = localStorage.getItem('token');
+
     this.client = new Client({
       webSocketFactory: () => new SockJS(WS_URL),
+      connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
@@ -42,6 +54,18 @@ class WebSocketService {
         const alert = JSON.parse(message.body);
         this.alertHandlers.forEach(handler => handler(alert));
       });
+
+      // Alerts raised by this user's own threshold rules
+      this.client?.subscribe('/user/queue/alerts', (message: IMessage) => {
+        const alert = JSON.parse(message.body);
+        this.alertHandlers.forEach(handler => handler(alert));
+      });
+
+      // Subscribe to this user's unread alert count (pushed when it changes, no polling needed)
+      this.client?.subscribe('/user/queue/alerts/unread-count', (message: IMessage) => {
+        const { count } = JSON.parse(message.body);
+        this.unreadCountHandlers.forEach(handler => handler(count));
+      });
     };
 
     this.client.onDisconnect = () => {
@@ -78,6 +102,13 @@ class WebSocketService {
     };
   }
 
+  onUnreadCount(handler: UnreadCountHandler) {
+    this.unreadCountHandlers.push(handler);
+    return () => {
+      this.unreadCountHandlers = this.unreadCountHandlers.filter(h => h !== handler);
+    };
+  }
+
   subscribeToSymbol(ticker: string, handler: PriceUpdateHandler) {
     if (!this.client?.connected) {
       console.warn('WebSocket not connected');
@@ -92,6 +123,32 @@ class WebSocketService {
     return () => subscription.unsubscribe();
   }
 
+  subscribeFiltered(filter: PriceFilter, handler: PriceUpdateHandler) {
+    if (!this.client?.connected) {
+      console.warn('WebSocket not connected');
+      return () => {};
+    }
+
+    // The server evaluates the filter before sending, so only matching ticks arrive
+    const headers: Record<string, string> = {};
+    if (filter.minPercentChange !== undefined) {
+      headers['min-percent-change'] = String(filter.minPercentChange);
+    }
+    if (filter.assetTypes?.length) {
+      headers['asset-types'] = filter.assetTypes.join(',');
+    }
+    if (filter.tickers?.length) {
+      headers['tickers'] = filter.tickers.join(',');
+    }
+
+    const subscription = this.client.subscribe('/topic/prices.filtered', (message: IMessage) => {
+      const price = JSON.parse(message.body);
+      handler(price);
+    }, headers);
+
+    return () => subscription.unsubscribe();
+  }
+
   isConnected() {
     return this.connected;
   }
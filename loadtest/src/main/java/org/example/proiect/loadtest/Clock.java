@@ -0,0 +1,50 @@
+package org.example.proiect.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * One time base for the producer and the subscribers: {@link System#nanoTime()} anchored
+ * to the wall clock once, so tick timestamps and receive times compare without wall-clock
+ * jumps. Producer and gateway run on the same machine or NTP-synced ones; the delivery
+ * latency includes any offset between their clocks.
+ */
+class Clock {
+
+    private final long originNanos = System.nanoTime();
+    private final Instant origin = Instant.now();
+    private final long measureFrom;
+    private final long measureUntil;
+
+    Clock(Duration warmup, Duration duration) {
+        this.measureFrom = originNanos + warmup.toNanos();
+        this.measureUntil = measureFrom + duration.toNanos();
+    }
+
+    long nanoTime() {
+        return System.nanoTime();
+    }
+
+    Instant toInstant(long nanos) {
+        return origin.plusNanos(nanos - originNanos);
+    }
+
+    long toNanos(Instant instant) {
+        return originNanos + Duration.between(origin, instant).toNanos();
+    }
+
+    long measureFrom() {
+        return measureFrom;
+    }
+
+    long measureUntil() {
+        return measureUntil;
+    }
+
+    /**
+     * Whether a tick planned at {@code nanos} belongs to the measured window.
+     */
+    boolean isMeasured(long nanos) {
+        return nanos >= measureFrom && nanos < measureUntil;
+    }
+}
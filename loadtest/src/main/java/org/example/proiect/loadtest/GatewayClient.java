@@ -0,0 +1,73 @@
+package org.example.proiect.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * REST calls made once per run: authentication and symbol creation. Retries requests
+ * answered with 429 after their {@code Retry-After}.
+ */
+class GatewayClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUrl;
+
+    GatewayClient(HttpClient httpClient, ObjectMapper objectMapper, URI baseUrl) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Logs in, registering the user first if it does not exist, and returns the JWT.
+     */
+    String authenticate(String username, String password) throws IOException, InterruptedException {
+        Map<String, String> credentials = Map.of("username", username, "password", password);
+        HttpResponse<String> login = post("/api/auth/login", credentials, null);
+        if (login.statusCode() != 200) {
+            HttpResponse<String> register = post("/api/auth/register", Map.of(
+                    "username", username, "password", password, "email", username + "@loadtest.local"), null);
+            if (register.statusCode() != 200) {
+                throw new IllegalStateException("Could not log in or register " + username + ": " + register.body());
+            }
+            login = register;
+        }
+        return objectMapper.readTree(login.body()).path("token").asText();
+    }
+
+    /**
+     * Creates the symbol unless it already exists.
+     */
+    void ensureSymbol(String ticker, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/symbols",
+                Map.of("ticker", ticker, "name", "Load test " + ticker, "type", "STOCK"), token);
+        if (response.statusCode() != 200 && response.statusCode() != 201
+                && !response.body().contains("already exists")) {
+            throw new IllegalStateException("Could not create symbol " + ticker + ": " + response.body());
+        }
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        while (true) {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 429) {
+                return response;
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(retryAfter * 1000);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.proiect.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test of a running gateway: {@link TickProducer} posts ticks at a fixed
+ * rate while {@link StompSubscriber}s receive the broadcasts. Prints a report and
+ * optionally writes it as JSON, so runs against two builds or two configurations can be
+ * compared.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        GatewayClient gateway = new GatewayClient(httpClient, objectMapper, config.baseUrl());
+        String token = gateway.authenticate(config.username(), config.password());
+        for (int i = 0; i < config.symbols(); i++) {
+            gateway.ensureSymbol(config.ticker(i), token);
+        }
+
+        Clock clock = new Clock(config.warmup(), config.duration());
+        Recorder deliveryLatency = new Recorder(3);
+        AtomicLong delivered = new AtomicLong();
+        List<StompSubscriber> subscribers = new ArrayList<>();
+        for (int i = 0; i < config.subscribers(); i++) {
+            String destination = config.perTicker()
+                    ? "/topic/price/" + config.ticker(i % config.symbols()) : "/topic/prices";
+            StompSubscriber subscriber = new StompSubscriber(objectMapper, clock, deliveryLatency, delivered,
+                    destination, token);
+            subscriber.connect(httpClient, config.baseUrl());
+            subscribers.add(subscriber);
+        }
+
+        System.out.printf("Running %s: %d symbols, %.0f ticks/s, batch %d, %d subscribers, %ds warm-up, %ds measured%n",
+                config.label().isEmpty() ? "load test" : config.label(), config.symbols(), config.rate(),
+                config.batchSize(), config.subscribers(), config.warmup().toSeconds(), config.duration().toSeconds());
+        TickProducer producer = new TickProducer(config, httpClient, objectMapper, clock);
+        producer.run(clock.measureUntil());
+        Thread.sleep(config.drain().toMillis());
+        subscribers.forEach(StompSubscriber::close);
+
+        long expected = 0;
+        for (int i = 0; i < config.subscribers(); i++) {
+            if (config.perTicker()) {
+                expected += producer.acceptedMeasured.get(i % config.symbols());
+            } else {
+                for (int s = 0; s < config.symbols(); s++) {
+                    expected += producer.acceptedMeasured.get(s);
+                }
+            }
+        }
+
+        Map<String, Object> report = report(config, producer, producer.latency().getIntervalHistogram(),
+                deliveryLatency.getIntervalHistogram(), delivered.get(), expected);
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        System.out.println(objectMapper.writeValueAsString(report));
+        if (config.report() != null) {
+            objectMapper.writeValue(new File(config.report()), report);
+        }
+
+        double p99 = ((Number) ((Map<?, ?>) report.get("delivery_latency_ms")).get("p99")).doubleValue();
+        if (config.failOnP99Ms() > 0 && p99 > config.failOnP99Ms()) {
+            System.err.printf("Delivery p99 %.1f ms exceeds %.1f ms%n", p99, config.failOnP99Ms());
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Object> report(LoadTestConfig config, TickProducer producer, Histogram http,
+                                              Histogram delivery, long delivered, long expected) {
+        double seconds = config.duration().toNanos() / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", config.label());
+        report.put("finished_at", Instant.now().toString());
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("symbols", config.symbols());
+        parameters.put("rate", config.rate());
+        parameters.put("batch_size", config.batchSize());
+        parameters.put("subscribers", config.subscribers());
+        parameters.put("per_ticker", config.perTicker());
+        parameters.put("warmup_s", config.warmup().toSeconds());
+        parameters.put("duration_s", config.duration().toSeconds());
+        report.put("config", parameters);
+        report.put("ticks_sent", producer.sent.get());
+        report.put("ticks_accepted", producer.accepted.get());
+        report.put("ticks_rejected", producer.rejected.get());
+        report.put("ticks_failed", producer.failed.get());
+        report.put("ticks_skipped", producer.skipped.get());
+        report.put("accepted_per_s", round(acceptedMeasured(producer) / seconds));
+        report.put("http_latency_ms", percentiles(http));
+        report.put("deliveries", delivered);
+        report.put("deliveries_expected", expected);
+        report.put("delivery_ratio", round(expected == 0 ? 0 : (double) delivered / expected));
+        report.put("deliveries_per_s", round(delivered / seconds));
+        report.put("delivery_latency_ms", percentiles(delivery));
+        return report;
+    }
+
+    private static long acceptedMeasured(TickProducer producer) {
+        long total = 0;
+        for (int i = 0; i < producer.acceptedMeasured.length(); i++) {
+            total += producer.acceptedMeasured.get(i);
+        }
+        return total;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", histogram.getTotalCount());
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.proiect.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test parameters, from {@code --name=value} arguments.
+ *
+ * @param baseUrl      gateway base URL
+ * @param symbols      number of symbols ticking ({@code LT0001}...), created if missing
+ * @param rate         ticks per second over all symbols, sent on a fixed schedule
+ * @param batchSize    0 posts each tick to {@code /api/analytics/price}, otherwise ticks go
+ *                     to {@code /api/analytics/prices/batch} in batches of this size
+ * @param subscribers  STOMP sessions on {@code /ws}
+ * @param perTicker    subscribers take {@code /topic/price/{ticker}} round-robin instead of
+ *                     all of {@code /topic/prices}
+ * @param warmup       run time before measuring
+ * @param duration     measured run time
+ * @param drain        wait for in-flight requests and deliveries after the last tick
+ * @param maxInFlight  outstanding tick requests before the generator skips ticks
+ * @param username     user for symbol creation and STOMP; registered if login fails
+ * @param password     password of that user
+ * @param label        free text copied into the report, e.g. the gateway mode
+ * @param report       path of the JSON report, or {@code null}
+ * @param failOnP99Ms  exit with status 1 if delivery p99 exceeds this, 0 disables
+ */
+public record LoadTestConfig(
+        URI baseUrl,
+        int symbols,
+        double rate,
+        int batchSize,
+        int subscribers,
+        boolean perTicker,
+        Duration warmup,
+        Duration duration,
+        Duration drain,
+        int maxInFlight,
+        String username,
+        String password,
+        String label,
+        String report,
+        double failOnP99Ms
+) {
+
+    private static final Set<String> OPTIONS = Set.of("base-url", "symbols", "rate", "batch-size", "subscribers",
+            "per-ticker", "warmup-s", "duration-s", "drain-s", "max-in-flight", "username", "password", "label",
+            "report", "fail-on-p99-ms");
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            if (!OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + ", expected one of " + OPTIONS);
+            }
+            options.put(name, arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                URI.create(options.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(options.getOrDefault("symbols", "10")),
+                Double.parseDouble(options.getOrDefault("rate", "100")),
+                Integer.parseInt(options.getOrDefault("batch-size", "0")),
+                Integer.parseInt(options.getOrDefault("subscribers", "10")),
+                Boolean.parseBoolean(options.getOrDefault("per-ticker", "false")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-s", "10"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-s", "60"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("drain-s", "5"))),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "1000")),
+                options.getOrDefault("username", "loadtest"),
+                options.getOrDefault("password", "loadtest123"),
+                options.getOrDefault("label", ""),
+                options.get("report"),
+                Double.parseDouble(options.getOrDefault("fail-on-p99-ms", "0")));
+        if (config.symbols < 1 || config.rate <= 0 || config.batchSize < 0 || config.subscribers < 0) {
+            throw new IllegalArgumentException("symbols and rate must be positive, batch-size and subscribers not negative");
+        }
+        return config;
+    }
+
+    public String ticker(int index) {
+        return String.format("LT%04d", index + 1);
+    }
+}
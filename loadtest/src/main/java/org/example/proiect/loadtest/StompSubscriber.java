@@ -0,0 +1,108 @@
+package org.example.proiect.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One dashboard session: a plain STOMP 1.2 client over the raw {@code /ws} endpoint that
+ * subscribes to a price topic and records, for each tick planned inside the measured
+ * window, the time from its timestamp to its arrival here.
+ */
+class StompSubscriber implements WebSocket.Listener {
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Recorder latency;
+    private final String destination;
+    private final String token;
+    private final CompletableFuture<Void> subscribed = new CompletableFuture<>();
+    private final StringBuilder buffer = new StringBuilder();
+    private final AtomicLong received;
+    private WebSocket webSocket;
+
+    StompSubscriber(ObjectMapper objectMapper, Clock clock, Recorder latency, AtomicLong received,
+                    String destination, String token) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.latency = latency;
+        this.received = received;
+        this.destination = destination;
+        this.token = token;
+    }
+
+    /**
+     * Opens the socket and waits until the subscription is sent.
+     */
+    void connect(HttpClient httpClient, URI baseUrl) throws Exception {
+        URI uri = URI.create(baseUrl.toString().replaceFirst("^http", "ws")).resolve("/ws");
+        httpClient.newWebSocketBuilder().buildAsync(uri, this).get(10, TimeUnit.SECONDS);
+        subscribed.get(10, TimeUnit.SECONDS);
+    }
+
+    void close() {
+        if (webSocket != null) {
+            webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+        }
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        this.webSocket = webSocket;
+        webSocket.sendText("CONNECT\naccept-version:1.2\nhost:localhost\nheart-beat:0,0\n"
+                + "Authorization:Bearer " + token + "\n\n\0", true);
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        long now = clock.nanoTime();
+        buffer.append(data);
+        int end;
+        while ((end = buffer.indexOf("\0")) >= 0) {
+            String frame = buffer.substring(0, end);
+            buffer.delete(0, end + 1);
+            handle(frame, now);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        subscribed.completeExceptionally(error);
+    }
+
+    private void handle(String frame, long now) {
+        // Heart-beats and inter-frame newlines
+        frame = frame.stripLeading();
+        if (frame.startsWith("CONNECTED")) {
+            webSocket.sendText("SUBSCRIBE\nid:sub-0\ndestination:" + destination + "\n\n\0", true);
+            subscribed.complete(null);
+        } else if (frame.startsWith("MESSAGE")) {
+            int body = frame.indexOf("\n\n");
+            try {
+                JsonNode timestamp = objectMapper.readTree(frame.substring(body + 2)).path("timestamp");
+                long stamped = clock.toNanos(LocalDateTime.parse(timestamp.asText()).toInstant(ZoneOffset.UTC));
+                if (clock.isMeasured(stamped)) {
+                    received.incrementAndGet();
+                    latency.recordValue(Math.max(0, now - stamped) / 1000);
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Unreadable price message: " + frame, e);
+            }
+        } else if (frame.startsWith("ERROR")) {
+            subscribed.completeExceptionally(new IllegalStateException(frame));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.proiect.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays the analytics service: posts ticks on a fixed schedule, round-robin over the
+ * symbols, the same JSON the Rust service sends.
+ * <p>
+ * The schedule is open loop. Each request is sent at its planned time whatever the state
+ * of earlier ones, and its latency is measured from that planned time, so a stalled
+ * gateway shows up as latency instead of as a slower sender (coordinated omission). The
+ * tick timestamp is the planned time too, which lets subscribers measure delivery latency
+ * against the same clock.
+ */
+class TickProducer {
+
+    private final LoadTestConfig config;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final URI endpoint;
+    private final Semaphore inFlight;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final double[] prices;
+
+    private final Recorder latency = new Recorder(3);
+    final AtomicLong sent = new AtomicLong();
+    final AtomicLong accepted = new AtomicLong();
+    final AtomicLong rejected = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    final AtomicLong skipped = new AtomicLong();
+    /** Accepted ticks per symbol stamped inside the measured window, to know what subscribers should see. */
+    final AtomicLongArray acceptedMeasured;
+
+    TickProducer(LoadTestConfig config, HttpClient httpClient, ObjectMapper objectMapper, Clock clock) {
+        this.config = config;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.endpoint = config.baseUrl().resolve(config.batchSize() > 0
+                ? "/api/analytics/prices/batch" : "/api/analytics/price");
+        this.inFlight = new Semaphore(config.maxInFlight());
+        this.prices = new double[config.symbols()];
+        Arrays.fill(prices, 100.0);
+        this.acceptedMeasured = new AtomicLongArray(config.symbols());
+    }
+
+    /**
+     * Sends ticks until {@code endNanos}, then waits up to the drain time for responses.
+     */
+    void run(long endNanos) throws InterruptedException {
+        int perRequest = Math.max(1, config.batchSize());
+        long intervalNanos = (long) (1_000_000_000L * perRequest / config.rate());
+        long planned = clock.nanoTime();
+        int next = 0;
+        while (planned < endNanos) {
+            long wait = planned - clock.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            List<Map<String, Object>> ticks = new ArrayList<>(perRequest);
+            int[] symbols = new int[perRequest];
+            for (int i = 0; i < perRequest; i++) {
+                symbols[i] = next;
+                ticks.add(tick(next, planned));
+                next = (next + 1) % config.symbols();
+            }
+            send(config.batchSize() > 0 ? ticks : ticks.get(0), symbols, planned);
+            planned += intervalNanos;
+        }
+        inFlight.tryAcquire(config.maxInFlight(), config.drain().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void send(Object body, int[] symbols, long planned) {
+        sent.addAndGet(symbols.length);
+        if (!inFlight.tryAcquire()) {
+            skipped.addAndGet(symbols.length);
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            inFlight.release();
+            throw new IllegalStateException(e);
+        }
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            inFlight.release();
+            long now = clock.nanoTime();
+            boolean measured = clock.isMeasured(planned);
+            if (measured) {
+                latency.recordValue(Math.max(0, now - planned) / 1000);
+            }
+            if (error != null) {
+                failed.addAndGet(symbols.length);
+            } else if (response.statusCode() / 100 == 2) {
+                accepted.addAndGet(symbols.length);
+                if (measured) {
+                    for (int symbol : symbols) {
+                        acceptedMeasured.incrementAndGet(symbol);
+                    }
+                }
+            } else if (response.statusCode() == 503 || response.statusCode() == 429) {
+                rejected.addAndGet(symbols.length);
+            } else {
+                failed.addAndGet(symbols.length);
+            }
+        });
+    }
+
+    private Map<String, Object> tick(int symbol, long planned) {
+        double price = prices[symbol] * (1 + random.nextDouble(-0.001, 0.001));
+        prices[symbol] = price;
+        Instant at = clock.toInstant(planned);
+        Map<String, Object> tick = new LinkedHashMap<>();
+        tick.put("ticker", config.ticker(symbol));
+        tick.put("price", Math.round(price * 10_000) / 10_000.0);
+        tick.put("volume", random.nextInt(1_000, 100_000));
+        tick.put("moving_average_5", null);
+        tick.put("moving_average_20", null);
+        tick.put("percent_change", null);
+        tick.put("timestamp", LocalDateTime.ofInstant(at, ZoneOffset.UTC) + "Z");
+        tick.put("is_anomaly", false);
+        tick.put("anomaly_type", null);
+        tick.put("anomaly_message", null);
+        return tick;
+    }
+
+    /**
+     * Latency of the measured requests in microseconds, from planned send to response.
+     */
+    Recorder latency() {
+        return latency;
+    }
+}
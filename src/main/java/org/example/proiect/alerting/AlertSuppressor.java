@@ -0,0 +1,190 @@
+package org.example.proiect.alerting;
+
+import org.example.proiect.model.Alert;
+import org.example.proiect.model.Symbol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per (symbol, alert type) storm suppression. During volatile periods the analytics service
+ * flags nearly every tick; this decides which of those alerts are actually written.
+ * State is one small window per key, so memory is bounded by symbols x alert types.
+ */
+@Component
+public class AlertSuppressor {
+
+    public record Summary(Symbol symbol, Alert.AlertType alertType, int suppressed,
+                          String lastMessage, BigDecimal triggerValue, BigDecimal thresholdValue) {}
+
+    private record Key(String ticker, Alert.AlertType alertType) {}
+
+    private final SuppressionMode mode;
+    private final long windowMillis;
+    private final int maxPerWindow;
+    private final Set<Alert.AlertType> exemptTypes;
+
+    private final Map<Key, Window> windows = new ConcurrentHashMap<>();
+
+    public AlertSuppressor(@Value("${alerts.suppression.mode:COOLDOWN}") SuppressionMode mode,
+                           @Value("${alerts.suppression.window-ms:60000}") long windowMillis,
+                           @Value("${alerts.suppression.max-per-window:5}") int maxPerWindow,
+                           @Value("${alerts.suppression.exempt-types:THRESHOLD_BREACH}") Set<Alert.AlertType> exemptTypes) {
+        this.mode = mode;
+        this.windowMillis = windowMillis;
+        this.maxPerWindow = maxPerWindow;
+        this.exemptTypes = exemptTypes;
+    }
+
+    /**
+     * Returns a permit if the alert should be written, or empty if it was suppressed. The
+     * permit is released if the alert is not committed after all, so the slot is not lost.
+     */
+    public Optional<Permit> tryAcquire(Symbol symbol, Alert.AlertType alertType, String message,
+                                       BigDecimal triggerValue, BigDecimal thresholdValue) {
+        return tryAcquire(symbol, alertType, message, triggerValue, thresholdValue, System.currentTimeMillis());
+    }
+
+    Optional<Permit> tryAcquire(Symbol symbol, Alert.AlertType alertType, String message,
+                                BigDecimal triggerValue, BigDecimal thresholdValue, long now) {
+        if (mode == SuppressionMode.NONE || exemptTypes.contains(alertType)) {
+            return Optional.of(Permit.UNLIMITED);
+        }
+        Key key = new Key(symbol.getTicker(), alertType);
+        while (true) {
+            Window window = windows.computeIfAbsent(key, k -> new Window(now));
+            synchronized (window) {
+                if (window.dead) {
+                    // Dropped by drainExpired since the lookup: use the window that replaces it
+                    continue;
+                }
+                if (now - window.start >= windowMillis) {
+                    if (mode == SuppressionMode.COALESCE && window.suppressed > 0) {
+                        // Summary not flushed yet: keep folding into it rather than losing the count
+                        window.fold(symbol, message, triggerValue, thresholdValue);
+                        return Optional.empty();
+                    }
+                    window.reset(now);
+                }
+                int limit = mode == SuppressionMode.RATE_LIMIT ? maxPerWindow : 1;
+                if (window.written < limit) {
+                    window.written++;
+                    return Optional.of(new Permit(window, window.start));
+                }
+                if (mode == SuppressionMode.COALESCE) {
+                    window.fold(symbol, message, triggerValue, thresholdValue);
+                } else {
+                    window.suppressed++;
+                }
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Closes coalescing windows that have ended and returns one summary per window that
+     * suppressed anything. Windows that stayed idle for a while are dropped.
+     */
+    public List<Summary> drainExpired() {
+        return drainExpired(System.currentTimeMillis());
+    }
+
+    List<Summary> drainExpired(long now) {
+        List<Summary> summaries = new ArrayList<>();
+
+        windows.entrySet().removeIf(entry -> {
+            Window window = entry.getValue();
+            synchronized (window) {
+                if (now - window.start < windowMillis) {
+                    return false;
+                }
+                if (window.suppressed > 0 && mode == SuppressionMode.COALESCE) {
+                    summaries.add(new Summary(window.symbol, entry.getKey().alertType(), window.suppressed,
+                            window.lastMessage, window.triggerValue, window.thresholdValue));
+                    window.reset(now);
+                    // The summary counts as this window's written alert
+                    window.written = 1;
+                    return false;
+                }
+                if (now - window.start < 2 * windowMillis) {
+                    return false;
+                }
+                // Marked under the lock, so a caller still holding this window retries
+                window.dead = true;
+                return true;
+            }
+        });
+        return summaries;
+    }
+
+    /**
+     * A written alert's slot in its window.
+     */
+    public static final class Permit {
+
+        private static final Permit UNLIMITED = new Permit(null, 0);
+
+        private final Window window;
+        private final long windowStart;
+
+        private Permit(Window window, long windowStart) {
+            this.window = window;
+            this.windowStart = windowStart;
+        }
+
+        /**
+         * Gives the slot back, e.g. when the alert's transaction rolled back. No effect once
+         * the window has moved on.
+         */
+        public void release() {
+            if (window == null) {
+                return;
+            }
+            synchronized (window) {
+                if (!window.dead && window.start == windowStart && window.written > 0) {
+                    window.written--;
+                }
+            }
+        }
+    }
+
+    private static final class Window {
+        private long start;
+        private boolean dead;
+        private int written;
+        private int suppressed;
+        private Symbol symbol;
+        private String lastMessage;
+        private BigDecimal triggerValue;
+        private BigDecimal thresholdValue;
+
+        Window(long now) {
+            start = now;
+        }
+
+        void reset(long now) {
+            start = now;
+            written = 0;
+            suppressed = 0;
+            symbol = null;
+            lastMessage = null;
+            triggerValue = null;
+            thresholdValue = null;
+        }
+
+        void fold(Symbol symbol, String message, BigDecimal triggerValue, BigDecimal thresholdValue) {
+            suppressed++;
+            this.symbol = symbol;
+            this.lastMessage = message;
+            this.triggerValue = triggerValue;
+            this.thresholdValue = thresholdValue;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.proiect.alerting;
+
+/**
+ * How repeated alerts of the same type for the same symbol are throttled.
+ */
+public enum SuppressionMode {
+    /** Every alert is written. */
+    NONE,
+    /** After an alert is written, further ones are suppressed until the window has passed. */
+    COOLDOWN,
+    /** At most {@code max-per-window} alerts are written per fixed window. */
+    RATE_LIMIT,
+    /** The first alert is written; the rest of the window is folded into one summary alert. */
+    COALESCE
+}
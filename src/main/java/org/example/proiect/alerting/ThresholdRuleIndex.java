@@ -0,0 +1,145 @@
+package org.example.proiect.alerting;
+
+import org.example.proiect.model.AlertRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of threshold rules.
+ * Rules are grouped per ticker and kept in skip lists ordered by threshold, one per watched
+ * value (price, percent change) and direction. A tick moving a value from {@code previous}
+ * to {@code current} can only cross thresholds in that interval, so evaluation is a range
+ * query: O(log n + k) for n rules on the ticker and k crossed rules.
+ * Writes are serialized; evaluation on the broadcast path is lock-free.
+ */
+public class ThresholdRuleIndex {
+
+    /**
+     * @param threshold exact, as stored; ordered and compared as a double
+     * @param userId    the rule's owner, who receives the alerts it raises
+     */
+    public record Rule(long id, String ticker, AlertRule.RuleType type, BigDecimal threshold,
+                       long userId, String username) {}
+
+    private final Map<String, SymbolRules> byTicker = new ConcurrentHashMap<>();
+    private final Map<Long, Rule> byId = new ConcurrentHashMap<>();
+
+    public synchronized void add(Rule rule) {
+        remove(rule.id());
+        byTicker.computeIfAbsent(rule.ticker(), ticker -> new SymbolRules()).add(rule);
+        byId.put(rule.id(), rule);
+    }
+
+    public synchronized void addAll(Collection<Rule> rules) {
+        rules.forEach(this::add);
+    }
+
+    public synchronized void remove(long id) {
+        Rule rule = byId.remove(id);
+        if (rule != null) {
+            SymbolRules rules = byTicker.get(rule.ticker());
+            if (rules != null) {
+                rules.remove(rule);
+            }
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Records the tick as the ticker's latest observation and returns the rules whose
+     * threshold lies between the previous observation and this one. The first tick seen
+     * for a ticker only sets the baseline. NaN values are ignored.
+     */
+    public List<Rule> evaluate(String ticker, double price, double percentChange) {
+        SymbolRules rules = byTicker.get(ticker);
+        if (rules == null) {
+            return List.of();
+        }
+        List<Rule> crossed = new ArrayList<>();
+        rules.price.crossed(price, crossed);
+        rules.percentChange.crossed(percentChange, crossed);
+        return crossed;
+    }
+
+    private static final class SymbolRules {
+        private final Side price = new Side();
+        private final Side percentChange = new Side();
+
+        void add(Rule rule) {
+            switch (rule.type()) {
+                case PRICE_ABOVE -> price.above.add(rule);
+                case PRICE_BELOW -> price.below.add(rule);
+                case PERCENT_CHANGE_ABOVE -> percentChange.above.add(rule);
+                case PERCENT_CHANGE_BELOW -> percentChange.below.add(rule);
+            }
+        }
+
+        void remove(Rule rule) {
+            switch (rule.type()) {
+                case PRICE_ABOVE -> price.above.remove(rule);
+                case PRICE_BELOW -> price.below.remove(rule);
+                case PERCENT_CHANGE_ABOVE -> percentChange.above.remove(rule);
+                case PERCENT_CHANGE_BELOW -> percentChange.below.remove(rule);
+            }
+        }
+    }
+
+    private static final class Side {
+        private final Thresholds above = new Thresholds();
+        private final Thresholds below = new Thresholds();
+        private final AtomicLong last = new AtomicLong(Double.doubleToLongBits(Double.NaN));
+
+        void crossed(double current, List<Rule> out) {
+            if (Double.isNaN(current)) {
+                return;
+            }
+            // The swap chains concurrent ticks, so every interval is evaluated exactly once
+            double previous = Double.longBitsToDouble(last.getAndSet(Double.doubleToLongBits(current)));
+            if (Double.isNaN(previous) || previous == current) {
+                return;
+            }
+            if (current > previous) {
+                above.collect(above.byThreshold.subMap(previous, false, current, true), out);
+            } else {
+                below.collect(below.byThreshold.subMap(current, true, previous, false), out);
+            }
+        }
+    }
+
+    private static final class Thresholds {
+        private final ConcurrentSkipListMap<Double, Set<Rule>> byThreshold = new ConcurrentSkipListMap<>();
+
+        void add(Rule rule) {
+            byThreshold.computeIfAbsent(rule.threshold().doubleValue(), k -> ConcurrentHashMap.newKeySet()).add(rule);
+        }
+
+        void remove(Rule rule) {
+            double threshold = rule.threshold().doubleValue();
+            Set<Rule> rules = byThreshold.get(threshold);
+            if (rules != null) {
+                rules.remove(rule);
+                if (rules.isEmpty()) {
+                    byThreshold.remove(threshold);
+                }
+            }
+        }
+
+        void collect(NavigableMap<Double, Set<Rule>> range, List<Rule> out) {
+            for (Set<Rule> rules : range.values()) {
+                out.addAll(rules);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.proiect.config;
+
+import org.example.proiect.service.KeyedSerialExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${broadcast.executor.lanes:8}")
+    private int broadcastLanes;
+
+    @Value("${broadcast.executor.queue-capacity:5000}")
+    private int broadcastQueueCapacity;
+
+    @Value("${async.executor.core-pool-size:4}")
+    private int asyncCorePoolSize;
+
+    @Value("${async.executor.max-pool-size:16}")
+    private int asyncMaxPoolSize;
+
+    @Value("${async.executor.queue-capacity:1000}")
+    private int asyncQueueCapacity;
+
+    /**
+     * Runs WebSocket/SSE fan-out and alert creation after the ingestion transaction commits,
+     * one serial lane per ticker so each ticker's ticks are handled one at a time, in order. When a
+     * lane is full the committing thread waits, slowing ingestion down instead of losing
+     * alerts.
+     */
+    @Bean(name = "broadcastExecutor")
+    public KeyedSerialExecutor broadcastExecutor() {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("broadcast-", 1).factory()
+                : new CustomizableThreadFactory("broadcast-");
+        return new KeyedSerialExecutor(broadcastLanes, broadcastQueueCapacity, threadFactory);
+    }
+
+    /**
+     * Executor for {@code @Async} methods.
+     */
+    @Bean(name = "asyncExecutor")
+    public TaskExecutor asyncExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("async-", asyncMaxPoolSize + asyncQueueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(asyncCorePoolSize);
+        executor.setMaxPoolSize(asyncMaxPoolSize);
+        executor.setQueueCapacity(asyncQueueCapacity);
+        executor.setThreadNamePrefix("async-");
+        return executor;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return asyncExecutor();
+    }
+
+    private static TaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.proiect.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+@Configuration
+public class SchedulingConfig {
+
+    public static final String BACKGROUND_SCHEDULER = "backgroundScheduler";
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${scheduling.background.pool-size:2}")
+    private int backgroundPoolSize;
+
+    /**
+     * Default scheduler for {@code @Scheduled} jobs, sized by {@code spring.task.scheduling.pool.size}.
+     * Declared here because the STOMP broker's own scheduler otherwise stops Spring Boot from
+     * creating one, and every job would share the broker's heartbeat threads.
+     */
+    @Bean(name = "taskScheduler")
+    public TaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder threadPoolTaskSchedulerBuilder,
+                                       SimpleAsyncTaskSchedulerBuilder simpleAsyncTaskSchedulerBuilder) {
+        return virtualThreads
+                ? simpleAsyncTaskSchedulerBuilder.build()
+                : threadPoolTaskSchedulerBuilder.build();
+    }
+
+    /**
+     * Scheduler for long-running jobs (correlation sampling and recomputes, partition
+     * maintenance), so they never hold up the short periodic flushes on the default one.
+     */
+    @Bean(name = BACKGROUND_SCHEDULER)
+    public ThreadPoolTaskScheduler backgroundScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(backgroundPoolSize);
+        scheduler.setThreadNamePrefix("background-");
+        return scheduler;
+    }
+}
@@ -1,7 +1,14 @@
 package org.example.proiect.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.example.proiect.ratelimit.ApiRateLimitFilter;
+import org.example.proiect.ratelimit.ConcurrencyLimitFilter;
+import org.example.proiect.security.BoundedPasswordEncoder;
 import org.example.proiect.security.JwtAuthenticationFilter;
+import org.example.proiect.security.LoginRateLimitFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -32,7 +39,20 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
+    private final ApiRateLimitFilter apiRateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${auth.hashing.queue-capacity:32}")
+    private int hashingQueueCapacity;
+
+    @Value("${auth.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMillis;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,6 +60,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses (SSE) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/api/public/**",
@@ -55,7 +77,10 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterBefore(loginRateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(apiRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -87,8 +112,14 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
+    /**
+     * BCrypt on its own bounded pool; by default half the cores, so a login storm cannot
+     * starve the request threads serving prices.
+     */
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, hashingQueueCapacity,
+                hashingTimeoutMillis, meterRegistry);
     }
 }
\ No newline at end of file
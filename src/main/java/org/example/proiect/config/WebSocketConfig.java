@@ -1,17 +1,81 @@
 package org.example.proiect.config;
 
+import lombok.RequiredArgsConstructor;
+import org.example.proiect.service.MetricsService;
+import org.example.proiect.websocket.BackpressureSubProtocolWebSocketHandler;
+import org.example.proiect.websocket.FilteredPriceSubscriptionInterceptor;
+import org.example.proiect.websocket.FilteredPriceSubscriptionRegistry;
+import org.example.proiect.websocket.JwtStompAuthenticationInterceptor;
+import org.example.proiect.websocket.SlowConsumerPolicy;
+import org.example.proiect.websocket.WebSocketMetricsBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
-import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
+/**
+ * STOMP broker configuration. Extends the delegating configuration (instead of using
+ * {@code @EnableWebSocketMessageBroker}) so that sessions can be decorated with the
+ * slow-consumer policy; other {@code WebSocketMessageBrokerConfigurer} beans still apply.
+ */
 @Configuration
-@EnableWebSocketMessageBroker
-public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+@RequiredArgsConstructor
+public class WebSocketConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final MetricsService metricsService;
+    private final JwtStompAuthenticationInterceptor jwtStompAuthenticationInterceptor;
+    private final FilteredPriceSubscriptionInterceptor filteredPriceSubscriptionInterceptor;
+    private final FilteredPriceSubscriptionRegistry filteredPriceSubscriptionRegistry;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${websocket.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${websocket.inbound.max-pool-size:16}")
+    private int inboundMaxPoolSize;
+
+    @Value("${websocket.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.slow-consumer.policy:CONFLATE}")
+    private SlowConsumerPolicy slowConsumerPolicy;
+
+    @Value("${websocket.slow-consumer.threshold-bytes:131072}")
+    private int slowConsumerThresholdBytes;
 
     @Override
-    public void configureMessageBroker(MessageBrokerRegistry config) {
+    protected void configureMessageBroker(MessageBrokerRegistry config) {
+        super.configureMessageBroker(config);
         // Enable a simple in-memory message broker
         config.enableSimpleBroker("/topic", "/queue");
         // Prefix for messages bound for @MessageMapping methods
@@ -19,7 +83,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     }
 
     @Override
-    public void registerStompEndpoints(StompEndpointRegistry registry) {
+    protected void registerStompEndpoints(StompEndpointRegistry registry) {
+        super.registerStompEndpoints(registry);
         // WebSocket endpoint for clients to connect
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000", "http://localhost:5173")
@@ -28,4 +93,76 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000", "http://localhost:5173");
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void configureClientInboundChannel(ChannelRegistration registration) {
+        super.configureClientInboundChannel(registration);
+        registration.interceptors(jwtStompAuthenticationInterceptor, filteredPriceSubscriptionInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    protected void configureClientOutboundChannel(ChannelRegistration registration) {
+        super.configureClientOutboundChannel(registration);
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    protected void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        super.configureWebSocketTransport(registration);
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    @Bean
+    @Override
+    public TaskExecutor clientInboundChannelExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("ws-inbound-", inboundMaxPoolSize + inboundQueueCapacity);
+        }
+        return super.clientInboundChannelExecutor();
+    }
+
+    @Bean
+    @Override
+    public TaskExecutor clientOutboundChannelExecutor() {
+        if (virtualThreads) {
+            return virtualThreadExecutor("ws-outbound-", outboundMaxPoolSize + outboundQueueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) super.clientOutboundChannelExecutor();
+        // A full queue drops the frame instead of throwing into the broadcast that published it
+        executor.setRejectedExecutionHandler((task, pool) -> metricsService.incrementOutboundRejected());
+        return executor;
+    }
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new BackpressureSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel,
+                slowConsumerPolicy, slowConsumerThresholdBytes, metricsService);
+    }
+
+    @Bean
+    public WebSocketMetricsBinder webSocketMetricsBinder(
+            @Qualifier("subProtocolWebSocketHandler") WebSocketHandler subProtocolWebSocketHandler) {
+        return new WebSocketMetricsBinder((BackpressureSubProtocolWebSocketHandler) subProtocolWebSocketHandler,
+                filteredPriceSubscriptionRegistry, clientInboundChannelExecutor(), clientOutboundChannelExecutor());
+    }
+
+    // Same admission bound as the platform pool (threads + queue), but callers are throttled instead of rejected
+    private static TaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
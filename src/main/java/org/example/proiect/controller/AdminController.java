@@ -0,0 +1,42 @@
+package org.example.proiect.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.example.proiect.service.UserAdminService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "User administration endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final UserAdminService userAdminService;
+
+    @PutMapping("/{username}/disable")
+    @Operation(summary = "Disable user", description = "Disables a user; their tokens stop authenticating immediately")
+    public ResponseEntity<Void> disableUser(@PathVariable String username) {
+        userAdminService.setActive(username, false);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/{username}/enable")
+    @Operation(summary = "Enable user", description = "Re-enables a disabled user")
+    public ResponseEntity<Void> enableUser(@PathVariable String username) {
+        userAdminService.setActive(username, true);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/{username}/revoke-tokens")
+    @Operation(summary = "Revoke tokens", description = "Revokes every stateless token issued to the user so far")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String username) {
+        userAdminService.revokeTokens(username);
+        return ResponseEntity.ok().build();
+    }
+}
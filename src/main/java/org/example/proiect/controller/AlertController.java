@@ -6,7 +6,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.proiect.dto.AlertDto;
 import org.example.proiect.service.AlertService;
+import org.example.proiect.web.VersionedJsonCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -20,45 +23,56 @@ import java.util.Map;
 public class AlertController {
 
     private final AlertService alertService;
+    private final VersionedJsonCache versionedJsonCache;
 
     @GetMapping
-    @Operation(summary = "Get recent alerts", description = "Returns alerts from the last N hours")
+    @Operation(summary = "Get recent alerts", description = "Returns up to limit alerts from the last N hours")
     public ResponseEntity<List<AlertDto>> getRecentAlerts(
-            @RequestParam(defaultValue = "24") int hours) {
-        return ResponseEntity.ok(alertService.getRecentAlerts(hours));
+            Authentication authentication,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(alertService.getRecentAlerts(authentication.getName(), hours, limit));
     }
 
     @GetMapping("/unread")
-    @Operation(summary = "Get unread alerts", description = "Returns all unread alerts")
-    public ResponseEntity<List<AlertDto>> getUnreadAlerts() {
-        return ResponseEntity.ok(alertService.getUnreadAlerts());
+    @Operation(summary = "Get unread alerts", description = "Returns the current user's most recent unread alerts")
+    public ResponseEntity<List<AlertDto>> getUnreadAlerts(
+            Authentication authentication,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(alertService.getUnreadAlerts(authentication.getName(), limit));
     }
 
     @GetMapping("/unread/count")
-    @Operation(summary = "Get unread alert count", description = "Returns the number of unread alerts")
-    public ResponseEntity<Map<String, Long>> getUnreadCount() {
-        return ResponseEntity.ok(Map.of("count", alertService.getUnreadCount()));
+    @Operation(summary = "Get unread alert count",
+            description = "Returns the number of unread alerts. Supports If-None-Match (304 when unchanged)")
+    public ResponseEntity<byte[]> getUnreadCount(
+            Authentication authentication,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String username = authentication.getName();
+        return versionedJsonCache.respond("unread-count:" + username, ifNoneMatch,
+                () -> Map.of("count", alertService.getUnreadCount(username)));
     }
 
     @GetMapping("/symbol/{ticker}")
     @Operation(summary = "Get alerts by symbol", description = "Returns alerts for a specific symbol")
     public ResponseEntity<List<AlertDto>> getAlertsBySymbol(
+            Authentication authentication,
             @PathVariable String ticker,
             @RequestParam(defaultValue = "50") int limit) {
-        return ResponseEntity.ok(alertService.getAlertsBySymbol(ticker, limit));
+        return ResponseEntity.ok(alertService.getAlertsBySymbol(authentication.getName(), ticker, limit));
     }
 
     @PutMapping("/{id}/read")
     @Operation(summary = "Mark alert as read", description = "Marks a specific alert as read")
-    public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
-        alertService.markAsRead(id);
+    public ResponseEntity<Void> markAsRead(Authentication authentication, @PathVariable Long id) {
+        alertService.markAsRead(authentication.getName(), id);
         return ResponseEntity.ok().build();
     }
 
     @PutMapping("/read-all")
-    @Operation(summary = "Mark all as read", description = "Marks all alerts as read")
-    public ResponseEntity<Void> markAllAsRead() {
-        alertService.markAllAsRead();
+    @Operation(summary = "Mark all as read", description = "Marks all alerts as read for the current user")
+    public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
+        alertService.markAllAsRead(authentication.getName());
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package org.example.proiect.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.proiect.dto.AlertRuleDto;
+import org.example.proiect.dto.AlertRuleRequest;
+import org.example.proiect.service.AlertRuleService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alert-rules")
+@RequiredArgsConstructor
+@Tag(name = "Alert Rules", description = "User-defined threshold alert rules")
+@SecurityRequirement(name = "bearerAuth")
+public class AlertRuleController {
+
+    private final AlertRuleService alertRuleService;
+
+    @GetMapping
+    @Operation(summary = "Get my rules", description = "Returns the threshold rules of the current user")
+    public ResponseEntity<List<AlertRuleDto>> getRules(Authentication authentication) {
+        return ResponseEntity.ok(alertRuleService.getRules(authentication.getName()));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create rule", description = "Alerts when a symbol's price or percent change crosses the threshold")
+    public ResponseEntity<AlertRuleDto> createRule(Authentication authentication,
+                                                   @Valid @RequestBody AlertRuleRequest request) {
+        return ResponseEntity.ok(alertRuleService.createRule(authentication.getName(), request));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete rule", description = "Deletes one of the current user's rules")
+    public ResponseEntity<Void> deleteRule(Authentication authentication, @PathVariable Long id) {
+        alertRuleService.deleteRule(authentication.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -33,7 +33,7 @@ public class AnalyticsController {
         try {
             log.debug("Received price data from analytics: {} = {}", data.getTicker(), data.getPrice());
             PriceDto saved = priceService.savePriceFromAnalytics(data);
-            metricsService.incrementPriceUpdates();
+            metricsService.incrementPriceUpdates(saved.getTicker());
             return ResponseEntity.ok(saved);
         } finally {
             metricsService.stopTimer(sample);
@@ -45,10 +45,11 @@ public class AnalyticsController {
         Timer.Sample sample = metricsService.startTimer();
         try {
             log.debug("Received batch price data from analytics: {} items", dataList.size());
+            metricsService.recordBatchSize(dataList.size());
             List<PriceDto> saved = dataList.stream()
                     .map(priceService::savePriceFromAnalytics)
                     .toList();
-            metricsService.incrementPriceUpdates();
+            saved.forEach(price -> metricsService.incrementPriceUpdates(price.getTicker()));
             return ResponseEntity.ok(saved);
         } finally {
             metricsService.stopTimer(sample);
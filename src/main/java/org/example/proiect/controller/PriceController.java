@@ -4,12 +4,25 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.example.proiect.dto.CorrelationMatrixDto;
+import org.example.proiect.dto.IndicatorSnapshot;
 import org.example.proiect.dto.PriceDto;
+import org.example.proiect.service.CorrelationService;
+import org.example.proiect.service.IndicatorService;
 import org.example.proiect.service.PriceService;
+import org.example.proiect.service.PriceStreamService;
+import org.example.proiect.web.VersionedJsonCache;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/prices")
@@ -19,11 +32,47 @@ import java.util.List;
 public class PriceController {
 
     private final PriceService priceService;
+    private final PriceStreamService priceStreamService;
+    private final IndicatorService indicatorService;
+    private final CorrelationService correlationService;
+    private final VersionedJsonCache versionedJsonCache;
 
     @GetMapping
-    @Operation(summary = "Get latest prices", description = "Returns the latest price for each symbol")
-    public ResponseEntity<List<PriceDto>> getLatestPrices() {
-        return ResponseEntity.ok(priceService.getLatestPrices());
+    @Operation(summary = "Get latest prices",
+            description = "Returns the latest price for each symbol. Supports If-None-Match (304 when unchanged)")
+    public ResponseEntity<byte[]> getLatestPrices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return versionedJsonCache.respond("prices", ifNoneMatch, priceService::getLatestPrices);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream price updates",
+            description = "Server-Sent Events stream of price updates, optionally filtered by ticker. "
+                    + "Reconnect with Last-Event-ID to receive only the missed updates")
+    public SseEmitter streamPrices(
+            @RequestParam(required = false) List<String> tickers,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return priceStreamService.subscribe(tickers, lastEventId);
+    }
+
+    @GetMapping("/history")
+    @Operation(summary = "Get price history for several symbols",
+            description = "Returns up to limit newest prices per symbol since the given time, grouped by ticker")
+    public ResponseEntity<Map<String, List<PriceDto>>> getPriceHistories(
+            @RequestParam List<String> tickers,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "100") int limit) {
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return ResponseEntity.ok(priceService.getPriceHistories(tickers, from, limit));
+    }
+
+    @GetMapping("/correlation")
+    @Operation(summary = "Get correlation matrix",
+            description = "Returns the rolling covariance and correlation of log returns across symbols, "
+                    + "plus per-symbol volatility, optionally restricted to the given tickers")
+    public ResponseEntity<CorrelationMatrixDto> getCorrelationMatrix(
+            @RequestParam(required = false) List<String> tickers) {
+        return ResponseEntity.ok(correlationService.getMatrix(tickers));
     }
 
     @GetMapping("/{ticker}")
@@ -34,17 +83,28 @@ public class PriceController {
 
     @GetMapping("/{ticker}/history")
     @Operation(summary = "Get price history", description = "Returns historical prices for a symbol")
-    public ResponseEntity<List<PriceDto>> getPriceHistory(
+    public ResponseEntity<StreamingResponseBody> getPriceHistory(
             @PathVariable String ticker,
             @RequestParam(defaultValue = "100") int limit) {
-        return ResponseEntity.ok(priceService.getPriceHistory(ticker, limit));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(priceService.streamPriceHistory(ticker, limit));
+    }
+
+    @GetMapping("/{ticker}/indicators")
+    @Operation(summary = "Get technical indicators",
+            description = "Returns EMA, VWAP, SMA, standard deviation, RSI and Bollinger bands as of the latest tick")
+    public ResponseEntity<IndicatorSnapshot> getIndicators(@PathVariable String ticker) {
+        return ResponseEntity.ok(indicatorService.getIndicators(ticker));
     }
 
     @GetMapping("/{ticker}/variations")
     @Operation(summary = "Get recent variations", description = "Returns price variations for a symbol in the last N hours")
-    public ResponseEntity<List<PriceDto>> getRecentVariations(
+    public ResponseEntity<StreamingResponseBody> getRecentVariations(
             @PathVariable String ticker,
             @RequestParam(defaultValue = "24") int hours) {
-        return ResponseEntity.ok(priceService.getRecentVariations(ticker, hours));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(priceService.streamRecentVariations(ticker, hours));
     }
 }
\ No newline at end of file
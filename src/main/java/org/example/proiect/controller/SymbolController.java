@@ -6,11 +6,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.proiect.dto.SymbolDto;
 import org.example.proiect.service.SymbolService;
+import org.example.proiect.web.VersionedJsonCache;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/symbols")
 @RequiredArgsConstructor
@@ -19,11 +19,14 @@ import java.util.List;
 public class SymbolController {
 
     private final SymbolService symbolService;
+    private final VersionedJsonCache versionedJsonCache;
 
     @GetMapping
-    @Operation(summary = "Get all symbols", description = "Returns all available trading symbols")
-    public ResponseEntity<List<SymbolDto>> getAllSymbols() {
-        return ResponseEntity.ok(symbolService.getAllSymbols());
+    @Operation(summary = "Get all symbols",
+            description = "Returns all available trading symbols. Supports If-None-Match (304 when unchanged)")
+    public ResponseEntity<byte[]> getAllSymbols(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return versionedJsonCache.respond("symbols", ifNoneMatch, symbolService::getAllSymbols);
     }
 
     @GetMapping("/{ticker}")
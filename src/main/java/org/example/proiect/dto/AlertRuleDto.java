@@ -0,0 +1,23 @@
+package org.example.proiect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.proiect.model.AlertRule;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertRuleDto {
+    private Long id;
+    private String ticker;
+    private AlertRule.RuleType ruleType;
+    private BigDecimal threshold;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+}
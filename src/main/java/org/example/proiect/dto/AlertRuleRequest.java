@@ -0,0 +1,26 @@
+package org.example.proiect.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.proiect.model.AlertRule;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertRuleRequest {
+    @NotBlank(message = "Ticker is required")
+    private String ticker;
+
+    @NotNull(message = "Rule type is required")
+    private AlertRule.RuleType ruleType;
+
+    @NotNull(message = "Threshold is required")
+    private BigDecimal threshold;
+}
@@ -0,0 +1,29 @@
+package org.example.proiect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Rolling covariance and correlation of log returns, sampled at a fixed interval.
+ * Rows and columns follow {@code tickers}; volatility is the standard deviation of the
+ * per-interval log return. Undefined values are {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CorrelationMatrixDto {
+    private LocalDateTime timestamp;
+    private int window;
+    private int samples;
+    private long sampleIntervalMs;
+    private List<String> tickers;
+    private Double[] volatility;
+    private Double[][] covariance;
+    private Double[][] correlation;
+}
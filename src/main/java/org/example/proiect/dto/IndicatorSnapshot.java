@@ -0,0 +1,30 @@
+package org.example.proiect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Technical indicators of a ticker as of its latest tick. Indicators whose window is
+ * not filled yet are {@code null}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicatorSnapshot {
+    private String ticker;
+    private LocalDateTime timestamp;
+    private long samples;
+    private Double price;
+    private Double ema;
+    private Double vwap;
+    private Double sma;
+    private Double stdDev;
+    private Double rsi;
+    private Double bollingerUpper;
+    private Double bollingerLower;
+}
@@ -1,5 +1,6 @@
 package org.example.proiect.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,4 +24,8 @@ public class PriceDto {
     private BigDecimal movingAverage20;
     private BigDecimal percentChange;
     private LocalDateTime timestamp;
+
+    // Only set on broadcasts when indicators.include-in-broadcast is enabled
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private IndicatorSnapshot indicators;
 }
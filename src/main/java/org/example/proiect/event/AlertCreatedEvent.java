@@ -0,0 +1,12 @@
+package org.example.proiect.event;
+
+import org.example.proiect.dto.AlertDto;
+
+/**
+ * Published when an alert has been persisted; delivered once the transaction commits.
+ *
+ * @param owner username of the rule owner the alert is sent to, or {@code null} to
+ *              broadcast it to everyone
+ */
+public record AlertCreatedEvent(AlertDto alert, String owner) {
+}
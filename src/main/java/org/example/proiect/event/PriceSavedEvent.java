@@ -0,0 +1,15 @@
+package org.example.proiect.event;
+
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.model.Alert;
+import org.example.proiect.model.Symbol;
+
+/**
+ * Published when a price has been persisted. Listeners act on it only after the
+ * ingestion transaction commits.
+ *
+ * @param alertType    alert to raise for this tick, or {@code null} if it is not an anomaly
+ * @param alertMessage message for that alert
+ */
+public record PriceSavedEvent(Symbol symbol, PriceDto price, Alert.AlertType alertType, String alertMessage) {
+}
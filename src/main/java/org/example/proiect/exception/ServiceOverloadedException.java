@@ -0,0 +1,19 @@
+package org.example.proiect.exception;
+
+/**
+ * Thrown when a request is shed because a bounded resource is saturated; mapped to
+ * 503 with a Retry-After header.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
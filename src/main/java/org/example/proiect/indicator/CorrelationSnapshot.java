@@ -0,0 +1,28 @@
+package org.example.proiect.indicator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable result of a {@link RollingCovarianceMatrix}. Matrices are stored as lower
+ * triangles; the accessors take indices in any order.
+ */
+public record CorrelationSnapshot(LocalDateTime timestamp,
+                                  int samples,
+                                  List<String> tickers,
+                                  double[] volatility,
+                                  double[][] covariance,
+                                  double[][] correlation) {
+
+    public static CorrelationSnapshot empty() {
+        return new CorrelationSnapshot(null, 0, List.of(), new double[0], new double[0][], new double[0][]);
+    }
+
+    public double covariance(int i, int j) {
+        return i >= j ? covariance[i][j] : covariance[j][i];
+    }
+
+    public double correlation(int i, int j) {
+        return i >= j ? correlation[i][j] : correlation[j][i];
+    }
+}
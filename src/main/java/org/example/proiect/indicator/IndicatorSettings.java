@@ -0,0 +1,11 @@
+package org.example.proiect.indicator;
+
+/**
+ * Periods shared by every ticker's {@link IndicatorState}.
+ *
+ * @param window     ticks in the SMA / standard deviation / Bollinger / VWAP window
+ * @param emaPeriod  EMA period (smoothing factor 2 / (period + 1))
+ * @param rsiPeriod  RSI period (Wilder's smoothing)
+ * @param bollingerK band width in standard deviations
+ */
+public record IndicatorSettings(int window, int emaPeriod, int rsiPeriod, double bollingerK) {}
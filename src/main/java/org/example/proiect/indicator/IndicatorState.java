@@ -0,0 +1,115 @@
+package org.example.proiect.indicator;
+
+import org.example.proiect.dto.IndicatorSnapshot;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running indicators for one ticker. Every update is O(1): EMA and RSI are recursive,
+ * VWAP keeps running price x volume and volume sums, and the SMA, standard deviation and
+ * Bollinger bands come from a {@link RollingWindow}. Not thread-safe; callers serialize
+ * updates per ticker.
+ */
+public final class IndicatorState {
+
+    private final String ticker;
+    private final IndicatorSettings settings;
+    private final double emaAlpha;
+
+    private final RollingWindow window;
+    private final RollingSum priceVolume;
+    private final RollingSum volume;
+
+    private long samples;
+    private double lastPrice = Double.NaN;
+    private LocalDateTime lastTimestamp;
+
+    private double ema;
+    private double averageGain;
+    private double averageLoss;
+
+    public IndicatorState(String ticker, IndicatorSettings settings) {
+        this.ticker = ticker;
+        this.settings = settings;
+        this.emaAlpha = 2.0 / (settings.emaPeriod() + 1);
+        this.window = new RollingWindow(settings.window());
+        this.priceVolume = new RollingSum(settings.window());
+        this.volume = new RollingSum(settings.window());
+    }
+
+    /**
+     * Applies a tick. Ticks not newer than the last applied one are ignored, so late or
+     * repeated deliveries cannot corrupt the recursive indicators.
+     */
+    public boolean update(double price, double tickVolume, LocalDateTime timestamp) {
+        if (lastTimestamp != null && timestamp != null && !timestamp.isAfter(lastTimestamp)) {
+            return false;
+        }
+        samples++;
+
+        ema = samples == 1 ? price : ema + emaAlpha * (price - ema);
+
+        window.add(price);
+        priceVolume.add(price * tickVolume);
+        volume.add(tickVolume);
+
+        if (!Double.isNaN(lastPrice)) {
+            updateRsi(price - lastPrice);
+        }
+
+        lastPrice = price;
+        if (timestamp != null) {
+            lastTimestamp = timestamp;
+        }
+        return true;
+    }
+
+    // Wilder's smoothing, seeded with the simple average of the first period changes
+    private void updateRsi(double change) {
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+        long changes = samples - 1;
+        int period = settings.rsiPeriod();
+        if (changes <= period) {
+            averageGain += (gain - averageGain) / changes;
+            averageLoss += (loss - averageLoss) / changes;
+        } else {
+            averageGain = (averageGain * (period - 1) + gain) / period;
+            averageLoss = (averageLoss * (period - 1) + loss) / period;
+        }
+    }
+
+    public IndicatorSnapshot snapshot() {
+        IndicatorSnapshot.IndicatorSnapshotBuilder snapshot = IndicatorSnapshot.builder()
+                .ticker(ticker)
+                .timestamp(lastTimestamp)
+                .samples(samples);
+        if (samples == 0) {
+            return snapshot.build();
+        }
+
+        snapshot.price(lastPrice).ema(ema);
+
+        double totalVolume = volume.sum();
+        if (totalVolume > 0) {
+            snapshot.vwap(priceVolume.sum() / totalVolume);
+        }
+
+        if (window.isFull()) {
+            double sma = window.mean();
+            double stdDev = window.standardDeviation();
+            snapshot.sma(sma)
+                    .stdDev(stdDev)
+                    .bollingerUpper(sma + settings.bollingerK() * stdDev)
+                    .bollingerLower(sma - settings.bollingerK() * stdDev);
+        }
+
+        if (samples > settings.rsiPeriod()) {
+            double rsi = averageLoss == 0
+                    ? (averageGain == 0 ? 50 : 100)
+                    : 100 - 100 / (1 + averageGain / averageLoss);
+            snapshot.rsi(rsi);
+        }
+        return snapshot.build();
+    }
+}
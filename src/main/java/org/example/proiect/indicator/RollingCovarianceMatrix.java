@@ -0,0 +1,179 @@
+package org.example.proiect.indicator;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Rolling covariance of time-aligned series over a fixed window of samples.
+ * Keeps the running sum of every series and of every pairwise product (lower triangle),
+ * so appending a sample costs O(n^2) for n series instead of a pass over the window.
+ * Rows are independent, which lets the full recompute and the snapshot fan out over a
+ * fork/join pool. A series added later starts with a flat (zero) history.
+ * Not thread-safe: a single sampling thread owns an instance.
+ */
+public final class RollingCovarianceMatrix {
+
+    // Small enough for work stealing to even out the triangular row lengths
+    private static final int ROWS_PER_TASK = 16;
+
+    private final int window;
+    private final List<String> series = new ArrayList<>();
+    private final Map<String, Integer> indexOf = new HashMap<>();
+    private double[][] values = new double[0][];
+    private double[] sums = new double[0];
+    private double[][] products = new double[0][];
+    private int next;
+    private int size;
+
+    public RollingCovarianceMatrix(int window) {
+        if (window < 2) {
+            throw new IllegalArgumentException("Window must be at least 2 samples");
+        }
+        this.window = window;
+    }
+
+    public int size() {
+        return series.size();
+    }
+
+    public int samples() {
+        return size;
+    }
+
+    public String name(int index) {
+        return series.get(index);
+    }
+
+    /**
+     * Index of the series, or -1 if it was never added.
+     */
+    public int indexOf(String name) {
+        return indexOf.getOrDefault(name, -1);
+    }
+
+    public int add(String name) {
+        int index = series.size();
+        series.add(name);
+        indexOf.put(name, index);
+        values = Arrays.copyOf(values, index + 1);
+        values[index] = new double[window];
+        sums = Arrays.copyOf(sums, index + 1);
+        products = Arrays.copyOf(products, index + 1);
+        products[index] = new double[index + 1];
+        return index;
+    }
+
+    /**
+     * Appends one value per series, in index order, evicting the oldest sample once the
+     * window is full.
+     */
+    public void append(double[] sample) {
+        int n = series.size();
+        int slot = next;
+        // Slots not written yet hold zero, so the eviction term is a no-op until the window fills
+        for (int i = 0; i < n; i++) {
+            double x = sample[i];
+            double old = values[i][slot];
+            double[] row = products[i];
+            for (int j = 0; j <= i; j++) {
+                row[j] += x * sample[j] - old * values[j][slot];
+            }
+            sums[i] += x - old;
+        }
+        for (int i = 0; i < n; i++) {
+            values[i][slot] = sample[i];
+        }
+        next = (slot + 1) % window;
+        size = Math.min(size + 1, window);
+    }
+
+    /**
+     * Recomputes every running sum from the window, discarding the rounding error the
+     * incremental updates accumulate.
+     */
+    public void recompute(ForkJoinPool pool) {
+        forEachRow(pool, series.size(), i -> {
+            double[] xs = values[i];
+            double sum = 0;
+            for (double x : xs) {
+                sum += x;
+            }
+            sums[i] = sum;
+            double[] row = products[i];
+            for (int j = 0; j <= i; j++) {
+                double[] ys = values[j];
+                double product = 0;
+                for (int k = 0; k < window; k++) {
+                    product += xs[k] * ys[k];
+                }
+                row[j] = product;
+            }
+        });
+    }
+
+    /**
+     * Sample covariance, correlation and standard deviation of every series. Values that
+     * are undefined (fewer than two samples, a series without variance) are NaN.
+     */
+    public CorrelationSnapshot snapshot(ForkJoinPool pool, LocalDateTime timestamp) {
+        int n = series.size();
+        int m = size;
+        double[] volatility = new double[n];
+        double[][] covariance = new double[n][];
+        double[][] correlation = new double[n][];
+
+        forEachRow(pool, n, i -> volatility[i] = m < 2 ? Double.NaN : Math.sqrt(Math.max(0, covariance(i, i, m))));
+        forEachRow(pool, n, i -> {
+            covariance[i] = new double[i + 1];
+            correlation[i] = new double[i + 1];
+            for (int j = 0; j <= i; j++) {
+                double cov = m < 2 ? Double.NaN : covariance(i, j, m);
+                double scale = volatility[i] * volatility[j];
+                covariance[i][j] = cov;
+                correlation[i][j] = scale > 0 ? Math.max(-1, Math.min(1, cov / scale)) : Double.NaN;
+            }
+        });
+        return new CorrelationSnapshot(timestamp, m, List.copyOf(series), volatility, covariance, correlation);
+    }
+
+    private double covariance(int i, int j, int m) {
+        return (products[i][j] - sums[i] * sums[j] / m) / (m - 1);
+    }
+
+    private static void forEachRow(ForkJoinPool pool, int rows, IntConsumer action) {
+        if (rows > 0) {
+            pool.invoke(new RowTask(0, rows, action));
+        }
+    }
+
+    private static final class RowTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        private RowTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(from, middle, action), new RowTask(middle, to, action));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.proiect.indicator;
+
+/**
+ * Fixed-size window over a primitive ring buffer keeping the running sum. The sum is
+ * recomputed from the buffer each time it wraps (amortized O(1)), so rounding left by
+ * values that have left the window does not accumulate.
+ */
+public final class RollingSum {
+
+    private final double[] values;
+    private int next;
+    private int size;
+    private double sum;
+
+    public RollingSum(int capacity) {
+        this.values = new double[capacity];
+    }
+
+    public void add(double value) {
+        if (size < values.length) {
+            size++;
+        } else {
+            sum -= values[next];
+        }
+        sum += value;
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (next == 0) {
+            resync();
+        }
+    }
+
+    private void resync() {
+        double exact = 0;
+        for (double value : values) {
+            exact += value;
+        }
+        sum = exact;
+    }
+
+    public double sum() {
+        return sum;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.proiect.indicator;
+
+/**
+ * Fixed-size window over a primitive ring buffer with O(1) mean and variance.
+ * Variance uses Welford's update extended to sliding windows (the evicted sample is
+ * removed as the new one is added), which stays numerically stable where a naive
+ * sum-of-squares would cancel out on large prices. Each time the buffer wraps, mean and
+ * M2 are recomputed from it (amortized O(1)), so the rounding of every past update does
+ * not accumulate over a long-running stream.
+ */
+public final class RollingWindow {
+
+    private final double[] values;
+    private int next;
+    private int size;
+    private double mean;
+    private double m2;
+
+    public RollingWindow(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Window capacity must be at least 2");
+        }
+        this.values = new double[capacity];
+    }
+
+    public void add(double value) {
+        if (size < values.length) {
+            size++;
+            double delta = value - mean;
+            mean += delta / size;
+            m2 += delta * (value - mean);
+        } else {
+            double evicted = values[next];
+            double oldMean = mean;
+            mean += (value - evicted) / size;
+            m2 += (value - evicted) * (value - mean + evicted - oldMean);
+            // Rounding can push M2 slightly below zero when the window is flat
+            if (m2 < 0) {
+                m2 = 0;
+            }
+        }
+        values[next] = value;
+        next = (next + 1) % values.length;
+        if (next == 0) {
+            resync();
+        }
+    }
+
+    // Two-pass over the full buffer
+    private void resync() {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double exactMean = sum / values.length;
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - exactMean) * (value - exactMean);
+        }
+        mean = exactMean;
+        m2 = squares;
+    }
+
+    public boolean isFull() {
+        return size == values.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Population standard deviation of the samples in the window.
+     */
+    public double standardDeviation() {
+        return size == 0 ? 0 : Math.sqrt(m2 / size);
+    }
+}
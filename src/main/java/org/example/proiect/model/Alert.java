@@ -35,11 +35,12 @@ public class Alert {
     @Column(name = "trigger_value", precision = 20, scale = 8)
     private BigDecimal triggerValue;
 
-    @Column(name = "threshold_value", precision = 10, scale = 4)
+    @Column(name = "threshold_value", precision = 20, scale = 8)
     private BigDecimal thresholdValue;
 
-    @Column(name = "is_read")
-    private Boolean isRead;
+    // Owner of an alert raised by a user's rule; null for alerts every user sees
+    @Column(name = "user_id")
+    private Long userId;
 
     @Column(nullable = false)
     private LocalDateTime timestamp;
@@ -53,9 +54,6 @@ public class Alert {
         if (timestamp == null) {
             timestamp = LocalDateTime.now();
         }
-        if (isRead == null) {
-            isRead = false;
-        }
     }
 
     public enum AlertType {
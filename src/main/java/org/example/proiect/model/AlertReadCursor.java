@@ -0,0 +1,58 @@
+package org.example.proiect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * High-water mark of a user's read alerts: every alert at or before
+ * ({@code readUntilTimestamp}, {@code readUntilId}) is read. Alerts after it that were
+ * read one by one are kept as exceptions in {@code alert_read_exceptions}.
+ */
+@Entity
+@Table(name = "alert_read_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertReadCursor {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "read_until_timestamp", nullable = false)
+    private LocalDateTime readUntilTimestamp;
+
+    @Column(name = "read_until_id", nullable = false)
+    private Long readUntilId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Cursor of a user who has not read anything yet.
+     */
+    public static AlertReadCursor initial(Long userId) {
+        return AlertReadCursor.builder()
+                .userId(userId)
+                .readUntilTimestamp(EPOCH)
+                .readUntilId(0L)
+                .build();
+    }
+
+    public boolean covers(Alert alert) {
+        return covers(alert.getTimestamp(), alert.getId());
+    }
+
+    public boolean covers(LocalDateTime timestamp, Long id) {
+        int byTimestamp = timestamp.compareTo(readUntilTimestamp);
+        return byTimestamp < 0 || (byTimestamp == 0 && id <= readUntilId);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.proiect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alert_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "symbol_id", nullable = false)
+    private Symbol symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rule_type", nullable = false)
+    private RuleType ruleType;
+
+    @Column(nullable = false, precision = 20, scale = 8)
+    private BigDecimal threshold;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (isActive == null) {
+            isActive = true;
+        }
+    }
+
+    /**
+     * Rules fire when the watched value crosses the threshold, not on every tick beyond it.
+     */
+    public enum RuleType {
+        PRICE_ABOVE,
+        PRICE_BELOW,
+        PERCENT_CHANGE_ABOVE,
+        PERCENT_CHANGE_BELOW
+    }
+}
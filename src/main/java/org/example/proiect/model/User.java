@@ -39,6 +39,9 @@ public class User {
     @Column(name = "is_active")
     private Boolean isActive;
 
+    @Column(name = "token_epoch", nullable = false)
+    private Integer tokenEpoch;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -52,6 +55,9 @@ public class User {
         if (isActive == null) {
             isActive = true;
         }
+        if (tokenEpoch == null) {
+            tokenEpoch = 0;
+        }
     }
 
     @PreUpdate
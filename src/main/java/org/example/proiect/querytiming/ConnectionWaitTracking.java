@@ -0,0 +1,76 @@
+package org.example.proiect.querytiming;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Data source wrapper that adds the time spent obtaining connections to the repository
+ * invocation running on the current thread, if any. Nested invocations also count towards
+ * the enclosing one.
+ */
+class ConnectionWaitTracking extends DelegatingDataSource {
+
+    static final class Wait {
+        long nanos;
+        int acquisitions;
+    }
+
+    private static final ThreadLocal<Wait> CURRENT = new ThreadLocal<>();
+
+    ConnectionWaitTracking(DataSource target) {
+        super(target);
+    }
+
+    /**
+     * Starts tracking for an invocation and returns the enclosing one's state, to be passed
+     * to {@link #end}.
+     */
+    static Wait begin() {
+        Wait enclosing = CURRENT.get();
+        CURRENT.set(new Wait());
+        return enclosing;
+    }
+
+    static Wait end(Wait enclosing) {
+        Wait wait = CURRENT.get();
+        if (enclosing == null) {
+            CURRENT.remove();
+        } else {
+            enclosing.nanos += wait.nanos;
+            enclosing.acquisitions += wait.acquisitions;
+            CURRENT.set(enclosing);
+        }
+        return wait;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long started = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            recordWait(started);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long started = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            recordWait(started);
+        }
+    }
+
+    private static void recordWait(long started) {
+        Wait wait = CURRENT.get();
+        if (wait != null) {
+            wait.nanos += System.nanoTime() - started;
+            wait.acquisitions++;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.proiect.querytiming;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.BaseStream;
+
+/**
+ * Times every call on one repository proxy, including the transaction the repository opens
+ * itself, and records the rows returned and the time spent waiting for a pooled connection.
+ * Calls inside a caller's transaction already hold a connection and wait for none. Methods
+ * returning a stream are timed until the cursor is open, and their rows are not counted.
+ */
+@RequiredArgsConstructor
+class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    private record Meters(Timer success, Counter errors, DistributionSummary rows, Timer connectionWait) {
+    }
+
+    private final String repository;
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        ConnectionWaitTracking.Wait enclosing = ConnectionWaitTracking.begin();
+        long started = System.nanoTime();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            ConnectionWaitTracking.Wait wait = ConnectionWaitTracking.end(enclosing);
+            record(method, elapsed, wait, error == null ? rows(method, result) : null, error);
+        }
+    }
+
+    private void record(Method method, long elapsed, ConnectionWaitTracking.Wait wait, Long rows, Throwable error) {
+        Meters methodMeters = meters.computeIfAbsent(method, this::register);
+        if (error == null) {
+            methodMeters.success().record(elapsed, TimeUnit.NANOSECONDS);
+        } else {
+            methodMeters.errors().increment();
+        }
+        if (rows != null) {
+            methodMeters.rows().record(rows);
+        }
+        if (wait.acquisitions > 0) {
+            methodMeters.connectionWait().record(wait.nanos, TimeUnit.NANOSECONDS);
+        }
+        if (slowQueryLog.isSlow(elapsed)) {
+            slowQueryLog.add(new SlowQueryLog.SlowQuery(Instant.now(), repository, method.getName(),
+                    error == null ? "success" : error.getClass().getSimpleName(),
+                    elapsed / 1e6, wait.nanos / 1e6, rows, Thread.currentThread().getName()));
+        }
+    }
+
+    private Meters register(Method method) {
+        String name = method.getName();
+        return new Meters(
+                Timer.builder("stock_market.repository.invocations")
+                        .description("Time spent in repository methods that returned normally")
+                        .tag("application", "stock-market-gateway")
+                        .tag("repository", repository)
+                        .tag("method", name)
+                        .register(meterRegistry),
+                Counter.builder("stock_market.repository.errors")
+                        .description("Repository method calls that threw")
+                        .tag("application", "stock-market-gateway")
+                        .tag("repository", repository)
+                        .tag("method", name)
+                        .register(meterRegistry),
+                DistributionSummary.builder("stock_market.repository.rows")
+                        .description("Rows returned per repository method call")
+                        .tag("application", "stock-market-gateway")
+                        .tag("repository", repository)
+                        .tag("method", name)
+                        .register(meterRegistry),
+                Timer.builder("stock_market.repository.connection_wait")
+                        .description("Time a repository method call waited for a pooled connection")
+                        .tag("application", "stock-market-gateway")
+                        .tag("repository", repository)
+                        .tag("method", name)
+                        .register(meterRegistry));
+    }
+
+    private static Long rows(Method method, Object result) {
+        if (method.getReturnType() == void.class || result instanceof BaseStream<?, ?>) {
+            return null;
+        }
+        if (result == null) {
+            return 0L;
+        }
+        if (result instanceof Collection<?> collection) {
+            return (long) collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return (long) slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1L : 0L;
+        }
+        // A single entity, projection or scalar (count, exists)
+        return 1L;
+    }
+}
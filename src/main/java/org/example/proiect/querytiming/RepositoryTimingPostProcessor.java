@@ -0,0 +1,63 @@
+package org.example.proiect.querytiming;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+/**
+ * Wires query timing in: adds a {@link RepositoryTimingInterceptor} to every Spring Data
+ * repository proxy, outside the repository's own transaction so connection acquisition is
+ * included, and wraps the data source with {@link ConnectionWaitTracking}. Disabled with
+ * {@code repository-metrics.enabled=false}.
+ * <p>
+ * The meter registry and the slow query log are looked up when the first repository is
+ * created, not when this post-processor is, so they are not initialized too early.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+    private final boolean enabled;
+
+    public RepositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                         ObjectProvider<SlowQueryLog> slowQueryLog,
+                                         Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = slowQueryLog;
+        this.enabled = environment.getProperty("repository-metrics.enabled", Boolean.class, true);
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        RepositoryTimingInterceptor interceptor = new RepositoryTimingInterceptor(
+                                repositoryInformation.getRepositoryInterface().getSimpleName(),
+                                meterRegistry.getObject(), slowQueryLog.getObject());
+                        // Right after ExposeInvocationInterceptor, ahead of the transaction interceptor
+                        Advisor[] advisors = proxyFactory.getAdvisors();
+                        int exposeInvocation = Arrays.asList(advisors).indexOf(ExposeInvocationInterceptor.ADVISOR);
+                        proxyFactory.addAdvice(exposeInvocation + 1, interceptor);
+                    }));
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ConnectionWaitTracking)) {
+            return new ConnectionWaitTracking(dataSource);
+        }
+        return bean;
+    }
+}
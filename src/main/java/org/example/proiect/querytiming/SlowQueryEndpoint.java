@@ -0,0 +1,28 @@
+package org.example.proiect.querytiming;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/slowqueries}: the slow repository invocations captured by
+ * {@link SlowQueryLog}. Read-only, since actuator endpoints are not authenticated.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+
+    public record SlowQueries(long thresholdMs, int capacity, List<SlowQueryLog.SlowQuery> queries) {
+    }
+
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public SlowQueries slowQueries() {
+        return new SlowQueries(slowQueryLog.thresholdMillis(), slowQueryLog.capacity(), slowQueryLog.entries());
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.proiect.querytiming;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The most recent repository invocations slower than
+ * {@code repository-metrics.slow-query-threshold-ms}, oldest dropped first. Arguments are
+ * not kept: the log is served on the unauthenticated actuator endpoint.
+ */
+@Component
+public class SlowQueryLog {
+
+    /**
+     * @param rows rows returned, or {@code null} if not countable (void, streams)
+     */
+    public record SlowQuery(Instant at, String repository, String method, String outcome,
+                            double durationMs, double connectionWaitMs, Long rows, String thread) {
+    }
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+
+    public SlowQueryLog(@Value("${repository-metrics.slow-query-threshold-ms:250}") long thresholdMillis,
+                        @Value("${repository-metrics.slow-query-log-size:100}") int capacity) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.capacity = capacity;
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos && capacity > 0;
+    }
+
+    void add(SlowQuery query) {
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(query);
+        }
+    }
+
+    /**
+     * Newest first.
+     */
+    public List<SlowQuery> entries() {
+        synchronized (entries) {
+            List<SlowQuery> newestFirst = new ArrayList<>(entries);
+            return newestFirst.reversed();
+        }
+    }
+
+    public long thresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
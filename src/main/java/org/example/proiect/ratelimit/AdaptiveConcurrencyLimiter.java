@@ -0,0 +1,135 @@
+package org.example.proiect.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency, after the gradient algorithm:
+ * the limit is scaled by {@code tolerance * baseline / average} round-trip time of the
+ * last window, so it shrinks as soon as requests slow down (queueing somewhere
+ * downstream, e.g. in the database) and grows again by about {@code sqrt(limit)} per
+ * window while latency stays near the baseline. The baseline is the lowest window
+ * average of the last {@value #BASELINE_WINDOWS} windows: a single fast outlier cannot
+ * pin it, and a lasting change in the workload replaces it once those windows have passed.
+ * Only successful requests are sampled ({@link #release(long)}); fast failures such as
+ * rejected input are released with {@link #releaseWithoutSample()}, since they say nothing
+ * about the latency of real work.
+ * Acquiring is a CAS on the in-flight count; the limit is recomputed under a lock once
+ * per sample window.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final int WINDOW_MIN_SAMPLES = 10;
+    private static final long WINDOW_MIN_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // Window averages the baseline is the minimum of, at least 30 seconds
+    static final int BASELINE_WINDOWS = 300;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // Guarded by this
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private final double[] windowAverages = new double[BASELINE_WINDOWS];
+    private int nextWindow;
+    private int filledWindows;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance < 1) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max and tolerance >= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than {@link #getLimit()} requests are in flight. Every
+     * successful call must be followed by exactly one {@link #release(long)} or
+     * {@link #releaseWithoutSample()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a request that succeeded and samples its round trip.
+     */
+    public void release(long rttNanos) {
+        release(rttNanos, System.nanoTime());
+    }
+
+    /**
+     * Frees the slot of a request that failed, without sampling it.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long rttNanos, long now) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        sample(rttNanos, inFlightBefore, now);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightBefore, long now) {
+        if (windowSamples == 0) {
+            windowStart = now;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+        if (windowSamples < WINDOW_MIN_SAMPLES || now - windowStart < WINDOW_MIN_NANOS) {
+            return;
+        }
+
+        double averageRtt = Math.max(1.0, (double) windowRttSum / windowSamples);
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+        update(averageRtt, maxInFlight);
+    }
+
+    private void update(double averageRtt, int maxInFlight) {
+        windowAverages[nextWindow] = averageRtt;
+        nextWindow = (nextWindow + 1) % BASELINE_WINDOWS;
+        filledWindows = Math.min(filledWindows + 1, BASELINE_WINDOWS);
+        double baselineRtt = averageRtt;
+        for (int i = 0; i < filledWindows; i++) {
+            baselineRtt = Math.min(baselineRtt, windowAverages[i]);
+        }
+
+        double current = limit;
+        // Nothing says a higher limit is needed while less than half of it is used
+        if (maxInFlight < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineRtt / averageRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(smoothed, maxLimit));
+    }
+}
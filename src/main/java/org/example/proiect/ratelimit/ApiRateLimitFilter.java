@@ -0,0 +1,94 @@
+package org.example.proiect.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Token bucket per authenticated user and {@link EndpointGroup}, applied right after the
+ * JWT filter. Requests over budget get 429 with Retry-After before reaching a controller.
+ * Rates come from {@code api.rate-limit.<group>.per-second} and {@code .burst}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<EndpointGroup, KeyedRateLimiter> limiters = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejectedCounters = new EnumMap<>(EndpointGroup.class);
+    private boolean enabled;
+
+    @PostConstruct
+    public void init() {
+        enabled = environment.getProperty("api.rate-limit.enabled", Boolean.class, true);
+        int maxUsers = environment.getProperty("api.rate-limit.max-users", Integer.class, 10000);
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "api.rate-limit." + group.propertyName();
+            double perSecond = environment.getRequiredProperty(prefix + ".per-second", Double.class);
+            int burst = environment.getRequiredProperty(prefix + ".burst", Integer.class);
+            limiters.put(group, new KeyedRateLimiter(perSecond, burst, maxUsers));
+            rejectedCounters.put(group, Counter.builder("stock_market.api.rate_limited")
+                    .description("API requests rejected by the per-user rate limit")
+                    .tag("application", "stock-market-gateway")
+                    .tag("group", group.propertyName())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EndpointGroup group = EndpointGroup.of(request.getServletPath());
+        // Anonymous requests are either public or rejected by authorization anyway
+        if (group == null || authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = limiters.get(group).tryAcquire(authentication.getName());
+        if (waitNanos > 0) {
+            rejectedCounters.get(group).increment();
+            log.debug("Rate limit exceeded for {} on {}", authentication.getName(), group);
+            RateLimitResponses.tooManyRequests(response, objectMapper, waitNanos, "Rate limit exceeded");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${api.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        limiters.values().forEach(KeyedRateLimiter::evictIdle);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.proiect.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.service.MetricsService;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load on ingestion and history endpoints with 503 once their
+ * {@link AdaptiveConcurrencyLimiter} is full, before authentication or any query runs.
+ * Streamed responses keep their slot until the body has been written. Only responses
+ * below 400 feed the limiter's latency samples; errors and rejected input just free the slot.
+ * Limits come from {@code concurrency-limit.<group>.initial}, {@code .min} and {@code .max}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper;
+    private final MetricsService metricsService;
+
+    private final Map<ConcurrencyLimitGroup, AdaptiveConcurrencyLimiter> limiters =
+            new EnumMap<>(ConcurrencyLimitGroup.class);
+    private boolean enabled;
+
+    @PostConstruct
+    public void init() {
+        enabled = environment.getProperty("concurrency-limit.enabled", Boolean.class, true);
+        double tolerance = environment.getProperty("concurrency-limit.tolerance", Double.class, 2.0);
+        for (ConcurrencyLimitGroup group : ConcurrencyLimitGroup.values()) {
+            String prefix = "concurrency-limit." + group.propertyName();
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    environment.getRequiredProperty(prefix + ".initial", Integer.class),
+                    environment.getRequiredProperty(prefix + ".min", Integer.class),
+                    environment.getRequiredProperty(prefix + ".max", Integer.class),
+                    tolerance);
+            limiters.put(group, limiter);
+            metricsService.registerConcurrencyLimiter(group.propertyName(), limiter);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        ConcurrencyLimitGroup group = ConcurrencyLimitGroup.of(request.getServletPath());
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            metricsService.incrementConcurrencyRejected(group.propertyName());
+            log.debug("Shed request to {}: {} in flight", group, limiter.getInFlight());
+            RateLimitResponses.serviceUnavailable(response, objectMapper, RETRY_AFTER_SECONDS,
+                    "Server is busy, retry later");
+            return;
+        }
+
+        Slot slot = new Slot(limiter);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(slot, response));
+            } else {
+                slot.release(completed && succeeded(response));
+            }
+        }
+    }
+
+    private static boolean succeeded(HttpServletResponse response) {
+        return response.getStatus() < 400;
+    }
+
+    private static final class Slot {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        void release(boolean sampled) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (sampled) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    private record ReleasingListener(Slot slot, HttpServletResponse response) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            slot.release(succeeded(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            slot.release(false);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            slot.release(false);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request: follow it into the new async cycle
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
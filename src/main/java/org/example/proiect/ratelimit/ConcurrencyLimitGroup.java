@@ -0,0 +1,42 @@
+package org.example.proiect.ratelimit;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Endpoints under an adaptive concurrency limit, each with its own limiter since their
+ * latencies are not comparable.
+ */
+public enum ConcurrencyLimitGroup {
+    INGESTION(List.of("/api/analytics/price")),
+    // A batch holds its slot for the whole batch
+    INGESTION_BATCH(List.of("/api/analytics/prices/batch")),
+    HISTORY(List.of("/api/prices/history", "/api/prices/*/history", "/api/prices/*/variations"));
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final List<String> patterns;
+
+    ConcurrencyLimitGroup(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * The group of the path, or {@code null} if it is not concurrency limited.
+     */
+    public static ConcurrencyLimitGroup of(String path) {
+        for (ConcurrencyLimitGroup group : values()) {
+            for (String pattern : group.patterns) {
+                if (MATCHER.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    public String propertyName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
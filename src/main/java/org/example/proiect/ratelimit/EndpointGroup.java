@@ -0,0 +1,41 @@
+package org.example.proiect.ratelimit;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Endpoint groups that get their own per-user request budget, most specific first.
+ */
+public enum EndpointGroup {
+    // Each call scans stored prices
+    HISTORY(List.of("/api/prices/history", "/api/prices/*/history", "/api/prices/*/variations")),
+    PRICES(List.of("/api/prices", "/api/prices/**")),
+    DEFAULT(List.of("/api/**"));
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final List<String> patterns;
+
+    EndpointGroup(List<String> patterns) {
+        this.patterns = patterns;
+    }
+
+    /**
+     * The group of the path, or {@code null} if it is not rate limited.
+     */
+    public static EndpointGroup of(String path) {
+        for (EndpointGroup group : values()) {
+            for (String pattern : group.patterns) {
+                if (MATCHER.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    public String propertyName() {
+        return name().toLowerCase();
+    }
+}
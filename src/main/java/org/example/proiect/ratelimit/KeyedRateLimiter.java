@@ -0,0 +1,51 @@
+package org.example.proiect.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link TokenBucket} per key (client IP, user, ...) in a bounded map. Buckets that
+ * have refilled completely carry no state and are evicted by {@link #evictIdle()}. Once
+ * the map is full, new keys share a single overflow bucket until eviction makes room, so
+ * a flood of distinct keys cannot grow memory.
+ */
+public final class KeyedRateLimiter {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxKeys;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+
+    public KeyedRateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.overflow = new TokenBucket(permitsPerSecond, burst, System.nanoTime());
+    }
+
+    /**
+     * @return 0 if the request is allowed, otherwise the nanoseconds until it would be
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, now))
+                    : overflow;
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        return before - buckets.size();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.proiect.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.proiect.exception.GlobalExceptionHandler;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the 429 and 503 responses of the rate- and concurrency-limiting filters, in the
+ * same shape as the errors of {@link GlobalExceptionHandler}.
+ */
+public final class RateLimitResponses {
+
+    private RateLimitResponses() {
+    }
+
+    public static void tooManyRequests(HttpServletResponse response, ObjectMapper objectMapper,
+                                       long waitNanos, String message) throws IOException {
+        // Retry-After has second granularity; never tell the client to retry immediately
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        write(response, objectMapper, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds, message);
+    }
+
+    public static void serviceUnavailable(HttpServletResponse response, ObjectMapper objectMapper,
+                                          long retryAfterSeconds, String message) throws IOException {
+        write(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds, message);
+    }
+
+    private static void write(HttpServletResponse response, ObjectMapper objectMapper, HttpStatus status,
+                              long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GlobalExceptionHandler.ErrorResponse(
+                status.value(), message, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.proiect.repository;
+
+import org.example.proiect.model.AlertReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertReadCursorRepository extends JpaRepository<AlertReadCursor, Long> {
+
+    /**
+     * Moves the user's cursor to the newest alert. Never moves it backwards.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO alert_read_cursors (user_id, read_until_timestamp, read_until_id, updated_at)
+            SELECT :userId, a.timestamp, a.id, now() FROM alerts a ORDER BY a.timestamp DESC, a.id DESC LIMIT 1
+            ON CONFLICT (user_id) DO UPDATE
+                SET read_until_timestamp = EXCLUDED.read_until_timestamp,
+                    read_until_id = EXCLUDED.read_until_id,
+                    updated_at = EXCLUDED.updated_at
+                WHERE (alert_read_cursors.read_until_timestamp, alert_read_cursors.read_until_id)
+                    < (EXCLUDED.read_until_timestamp, EXCLUDED.read_until_id)
+            """, nativeQuery = true)
+    int advanceToLatest(@Param("userId") Long userId);
+
+    /**
+     * Records an individually read alert. Returns 1 only if the alert exists, lies after the
+     * given cursor and was not already read.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO alert_read_exceptions (user_id, alert_id)
+            SELECT :userId, a.id FROM alerts a
+            WHERE a.id = :alertId AND (a.timestamp, a.id) > (:readUntilTimestamp, :readUntilId)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertException(@Param("userId") Long userId,
+                        @Param("alertId") Long alertId,
+                        @Param("readUntilTimestamp") LocalDateTime readUntilTimestamp,
+                        @Param("readUntilId") Long readUntilId);
+
+    @Modifying
+    @Query(value = "DELETE FROM alert_read_exceptions WHERE user_id = :userId", nativeQuery = true)
+    int deleteExceptions(@Param("userId") Long userId);
+
+    @Query(value = "SELECT alert_id FROM alert_read_exceptions WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findExceptionIds(@Param("userId") Long userId);
+}
@@ -4,7 +4,6 @@ import org.example.proiect.model.Alert;
 import org.example.proiect.model.Symbol;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,23 +14,52 @@ import java.util.List;
 @Repository
 public interface AlertRepository extends JpaRepository<Alert, Long> {
 
-    List<Alert> findBySymbolOrderByTimestampDesc(Symbol symbol, Pageable pageable);
+    // Transaction-scoped advisory lock key that serializes alert inserts
+    String INSERT_LOCK_KEY = "7340001";
 
-    List<Alert> findByIsReadFalseOrderByTimestampDesc();
+    /**
+     * Waits for other transactions inserting alerts to commit or roll back, and holds that
+     * position until this transaction ends. Alerts written under it get their timestamp and
+     * id in commit order, so a read cursor never skips an alert that commits late.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + INSERT_LOCK_KEY + ")", nativeQuery = true)
+    int lockInserts();
 
-    @Query("SELECT a FROM Alert a WHERE a.timestamp >= :since ORDER BY a.timestamp DESC")
-    List<Alert> findRecentAlerts(@Param("since") LocalDateTime since);
+    List<Alert> findBySymbolAndUserIdIsNullOrderByTimestampDescIdDesc(Symbol symbol, Pageable pageable);
 
-    List<Alert> findByAlertTypeOrderByTimestampDesc(Alert.AlertType alertType, Pageable pageable);
+    @Query("SELECT a FROM Alert a JOIN FETCH a.symbol s WHERE s.ticker = :ticker AND a.userId = :userId ORDER BY a.timestamp DESC, a.id DESC")
+    List<Alert> findOwnedBySymbol(@Param("ticker") String ticker, @Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = """
+            SELECT a.* FROM alerts a
+            WHERE (a.timestamp, a.id) > (:readUntilTimestamp, :readUntilId)
+              AND (a.user_id IS NULL OR a.user_id = :userId)
+              AND NOT EXISTS (SELECT 1 FROM alert_read_exceptions e WHERE e.user_id = :userId AND e.alert_id = a.id)
+            ORDER BY a.timestamp DESC, a.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Alert> findUnread(@Param("userId") Long userId,
+                           @Param("readUntilTimestamp") LocalDateTime readUntilTimestamp,
+                           @Param("readUntilId") Long readUntilId,
+                           @Param("limit") int limit);
 
-    @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.id = :id")
-    void markAsRead(@Param("id") Long id);
+    @Query(value = """
+            SELECT count(*) FROM alerts a
+            WHERE (a.timestamp, a.id) > (:readUntilTimestamp, :readUntilId)
+              AND (a.user_id IS NULL OR a.user_id = :userId)
+              AND NOT EXISTS (SELECT 1 FROM alert_read_exceptions e WHERE e.user_id = :userId AND e.alert_id = a.id)
+            """, nativeQuery = true)
+    long countUnread(@Param("userId") Long userId,
+                     @Param("readUntilTimestamp") LocalDateTime readUntilTimestamp,
+                     @Param("readUntilId") Long readUntilId);
 
-    @Modifying
-    @Query("UPDATE Alert a SET a.isRead = true WHERE a.isRead = false")
-    void markAllAsRead();
+    // Alerts every user sees; a user's own rule alerts come from findRecentOwnedAlerts
+    @Query("SELECT a FROM Alert a JOIN FETCH a.symbol WHERE a.userId IS NULL AND a.timestamp >= :since ORDER BY a.timestamp DESC, a.id DESC")
+    List<Alert> findRecentAlerts(@Param("since") LocalDateTime since, Pageable pageable);
 
-    long countByIsReadFalse();
+    @Query("SELECT a FROM Alert a JOIN FETCH a.symbol WHERE a.userId = :userId AND a.timestamp >= :since ORDER BY a.timestamp DESC, a.id DESC")
+    List<Alert> findRecentOwnedAlerts(@Param("userId") Long userId, @Param("since") LocalDateTime since, Pageable pageable);
+
+    List<Alert> findByAlertTypeOrderByTimestampDesc(Alert.AlertType alertType, Pageable pageable);
 }
 
@@ -0,0 +1,22 @@
+package org.example.proiect.repository;
+
+import org.example.proiect.model.AlertRule;
+import org.example.proiect.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    @Query("SELECT r FROM AlertRule r JOIN FETCH r.symbol JOIN FETCH r.user WHERE r.isActive = true")
+    List<AlertRule> findAllActiveWithSymbol();
+
+    @Query("SELECT r FROM AlertRule r JOIN FETCH r.symbol WHERE r.user = :user ORDER BY r.createdAt DESC")
+    List<AlertRule> findByUser(User user);
+
+    Optional<AlertRule> findByIdAndUser(Long id, User user);
+}
@@ -1,20 +1,29 @@
 package org.example.proiect.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.proiect.model.Price;
 import org.example.proiect.model.Symbol;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PriceRepository extends JpaRepository<Price, Long> {
 
+    // Rows per round trip when streaming through a cursor (needs an open transaction)
+    String STREAM_FETCH_SIZE = "1000";
+
     List<Price> findBySymbolOrderByTimestampDesc(Symbol symbol, Pageable pageable);
 
     Optional<Price> findTopBySymbolOrderByTimestampDesc(Symbol symbol);
@@ -25,6 +34,34 @@ public interface PriceRepository extends JpaRepository<Price, Long> {
     @Query("SELECT p FROM Price p WHERE p.symbol.ticker = :ticker ORDER BY p.timestamp DESC")
     List<Price> findByTickerOrderByTimestampDesc(@Param("ticker") String ticker, Pageable pageable);
 
+    @Query("SELECT p FROM Price p WHERE p.symbol.ticker = :ticker AND p.timestamp < :before ORDER BY p.timestamp DESC")
+    List<Price> findByTickerBeforeOrderByTimestampDesc(@Param("ticker") String ticker,
+                                                       @Param("before") LocalDateTime before,
+                                                       Pageable pageable);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT p FROM Price p JOIN FETCH p.symbol s WHERE s.ticker = :ticker ORDER BY p.timestamp DESC")
+    Stream<Price> streamByTicker(@Param("ticker") String ticker, Limit limit);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT p FROM Price p JOIN FETCH p.symbol WHERE p.symbol = :symbol AND p.timestamp >= :since " +
+            "ORDER BY p.timestamp DESC")
+    Stream<Price> streamRecentPrices(@Param("symbol") Symbol symbol, @Param("since") LocalDateTime since);
+
+    /**
+     * Up to {@code limit} newest prices since {@code since} for each symbol, in one query:
+     * a LATERAL top-N per symbol that walks idx_prices_symbol_timestamp instead of ranking
+     * every row with a window function.
+     */
+    @Query(value = "SELECT p.* FROM symbols s " +
+            "CROSS JOIN LATERAL (SELECT * FROM prices pr WHERE pr.symbol_id = s.id AND pr.timestamp >= :since " +
+            "ORDER BY pr.timestamp DESC LIMIT :limit) p " +
+            "WHERE s.id IN (:symbolIds) " +
+            "ORDER BY p.symbol_id, p.timestamp DESC", nativeQuery = true)
+    List<Price> findLatestPerSymbol(@Param("symbolIds") Collection<Long> symbolIds,
+                                    @Param("since") LocalDateTime since,
+                                    @Param("limit") int limit);
+
     @Query("SELECT DISTINCT p.symbol FROM Price p")
     List<Symbol> findDistinctSymbols();
 
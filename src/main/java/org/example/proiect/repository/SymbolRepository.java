@@ -4,6 +4,8 @@ import org.example.proiect.model.Symbol;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +13,8 @@ public interface SymbolRepository extends JpaRepository<Symbol, Long> {
 
     Optional<Symbol> findByTicker(String ticker);
 
+    List<Symbol> findByTickerIn(Collection<String> tickers);
+
     boolean existsByTicker(String ticker);
 }
 
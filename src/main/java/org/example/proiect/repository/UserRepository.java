@@ -2,8 +2,12 @@ package org.example.proiect.repository;
 
 import org.example.proiect.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,8 +17,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.username = :username")
+    Optional<Integer> findTokenEpochByUsername(@Param("username") String username);
+
+    // Users who never had their tokens revoked are at epoch 0 and need no entry
+    @Query("SELECT u.username AS username, u.tokenEpoch AS tokenEpoch FROM User u WHERE u.tokenEpoch > 0")
+    List<TokenEpoch> findRevokedTokenEpochs();
+
+    @Modifying
+    @Query(value = "UPDATE users SET is_active = :active, updated_at = now() WHERE username = :username",
+            nativeQuery = true)
+    int updateActive(@Param("username") String username, @Param("active") boolean active);
+
+    /**
+     * Increments the epoch in place, so concurrent revocations never overwrite each other.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET token_epoch = token_epoch + 1, updated_at = now() WHERE username = :username",
+            nativeQuery = true)
+    int incrementTokenEpoch(@Param("username") String username);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    interface TokenEpoch {
+        String getUsername();
+
+        Integer getTokenEpoch();
+    }
 }
 
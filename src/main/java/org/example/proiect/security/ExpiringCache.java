@@ -0,0 +1,73 @@
+package org.example.proiect.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small bounded cache whose entries carry their own expiry. When full, expired entries
+ * are purged first; if that frees nothing, an arbitrary tenth of the entries is dropped
+ * (hash order, so effectively random). A capacity of zero disables caching.
+ */
+public final class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public ExpiringCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * The cached value, or {@code null} if absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        int toDrop = Math.max(1, maxEntries / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
@@ -3,33 +3,59 @@ package org.example.proiect.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String EPOCH_CLAIM = "epoch";
+
+    private final MeterRegistry meterRegistry;
+    private final TokenEpochs tokenEpochs;
+
     @Value("${jwt.secret:#{null}}")
     private String jwtSecret;
 
     @Value("${jwt.expiration:86400000}")
     private long jwtExpiration;
 
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean stateless;
+
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
     private SecretKey signingKey;
 
+    // Verified claims keyed by a digest of the token, so raw tokens are not retained
+    private ExpiringCache<String, Claims> verifiedTokens;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
     @PostConstruct
     public void init() {
         // Try to read from file first (for Docker secrets)
@@ -49,6 +75,39 @@ public class JwtService {
         }
 
         signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+
+        verifiedTokens = new ExpiringCache<>(cacheMaxEntries);
+        cacheHits = Counter.builder("stock_market.jwt.cache")
+                .description("Token verifications served from the verified-claims cache")
+                .tag("application", "stock-market-gateway")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        cacheMisses = Counter.builder("stock_market.jwt.cache")
+                .description("Token verifications served from the verified-claims cache")
+                .tag("application", "stock-market-gateway")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the token's signature and expiry and returns its claims. A token is parsed
+     * at most once while cached; a cached entry never outlives the token's expiration.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        String digest = digest(token);
+        Claims claims = verifiedTokens.get(digest);
+        if (claims != null) {
+            cacheHits.increment();
+            return claims;
+        }
+        cacheMisses.increment();
+        claims = extractAllClaims(token);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, claims, claims.getExpiration().getTime());
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -56,7 +115,7 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
@@ -64,9 +123,20 @@ public class JwtService {
         return generateToken(new HashMap<>(), userDetails);
     }
 
+    /**
+     * In stateless mode the token also carries the user's roles and token epoch, so it can
+     * be authorized without loading the user.
+     */
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (stateless) {
+            claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+            claims.put(EPOCH_CLAIM, tokenEpochs.forNewToken(userDetails.getUsername()));
+        }
         return Jwts.builder()
-                .claims(extraClaims)
+                .claims(claims)
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
@@ -75,16 +145,15 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(verify(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     private Claims extractAllClaims(String token) {
@@ -94,4 +163,13 @@ public class JwtService {
                 .parseSignedClaims(token)
                 .getPayload();
     }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
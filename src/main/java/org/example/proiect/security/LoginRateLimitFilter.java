@@ -0,0 +1,86 @@
+package org.example.proiect.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.ratelimit.KeyedRateLimiter;
+import org.example.proiect.ratelimit.RateLimitResponses;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Per-IP token bucket on login and registration, applied before any password is hashed.
+ * Behind the frontend proxy the remote address is the client's, resolved by Tomcat from
+ * X-Forwarded-For ({@code server.forward-headers-strategy=native}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.rate-limit.per-ip-per-minute:20}")
+    private double permitsPerMinute;
+
+    @Value("${auth.rate-limit.burst:10}")
+    private int burst;
+
+    @Value("${auth.rate-limit.max-ips:10000}")
+    private int maxIps;
+
+    private KeyedRateLimiter limiter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        limiter = new KeyedRateLimiter(permitsPerMinute / 60, burst, maxIps);
+        rejectedCounter = Counter.builder("stock_market.auth.rejected")
+                .description("Authentication requests shed before hashing a password")
+                .tag("application", "stock-market-gateway")
+                .tag("reason", "rate_limited")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !"POST".equals(request.getMethod())
+                || !(path.equals("/api/auth/login") || path.equals("/api/auth/register"));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long waitNanos = limiter.tryAcquire(request.getRemoteAddr());
+        if (waitNanos > 0) {
+            rejectedCounter.increment();
+            log.debug("Login rate limit exceeded for {}", request.getRemoteAddr());
+            RateLimitResponses.tooManyRequests(response, objectMapper, waitNanos,
+                    "Too many login attempts, retry later");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        limiter.evictIdle();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.proiect.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Resolves the user a bearer token authenticates, for HTTP requests and STOMP sessions.
+ * In stateless mode, tokens carrying roles and an epoch are authorized from their claims
+ * alone and revoked through {@link TokenEpochs}; other tokens go through the user cache.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenAuthenticator {
+
+    private final JwtService jwtService;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenEpochs tokenEpochs;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean stateless;
+
+    /**
+     * The authenticated user, or {@code null} if the token is revoked or the user disabled.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public UserDetails authenticate(String token) {
+        Claims claims = jwtService.verify(token);
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+
+        if (stateless && claims.get(JwtService.ROLES_CLAIM) instanceof List<?> roles
+                && claims.get(JwtService.EPOCH_CLAIM) instanceof Number epoch) {
+            if (!tokenEpochs.isCurrent(username, epoch.intValue())) {
+                return null;
+            }
+            return User.withUsername(username)
+                    .password("")
+                    .authorities(roles.stream().map(String::valueOf).toArray(String[]::new))
+                    .build();
+        }
+
+        UserDetails userDetails = userDetailsCache.get(username);
+        return userDetails.isEnabled() && jwtService.isTokenValid(claims, userDetails) ? userDetails : null;
+    }
+}
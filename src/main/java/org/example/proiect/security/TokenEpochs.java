@@ -0,0 +1,67 @@
+package org.example.proiect.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory view of per-user token epochs for stateless JWTs. A token is revoked once the
+ * user's epoch moves past the one it carries. Only users whose epoch was ever bumped have
+ * an entry, so the map stays small; it is refreshed from the database on a schedule and
+ * updated immediately for revocations made by this instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenEpochs {
+
+    private final UserRepository userRepository;
+
+    private volatile Map<String, Integer> epochs = Map.of();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Epoch to embed in a new token; read from the database, so it is never behind.
+     */
+    public int forNewToken(String username) {
+        return userRepository.findTokenEpochByUsername(username).orElse(0);
+    }
+
+    /**
+     * Whether a token carrying {@code epoch} is still valid. Newer epochs are accepted so a
+     * token issued by another instance works before this one has refreshed.
+     */
+    public boolean isCurrent(String username, int epoch) {
+        return epoch >= epochs.getOrDefault(username, 0);
+    }
+
+    public synchronized void bumped(String username, int epoch) {
+        Map<String, Integer> updated = new HashMap<>(epochs);
+        updated.merge(username, epoch, Math::max);
+        epochs = Map.copyOf(updated);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.stateless.epoch-refresh-ms:30000}",
+            initialDelayString = "${jwt.stateless.epoch-refresh-ms:30000}")
+    public void refresh() {
+        Map<String, Integer> loaded = new HashMap<>();
+        userRepository.findRevokedTokenEpochs()
+                .forEach(row -> loaded.put(row.getUsername(), row.getTokenEpoch()));
+        synchronized (this) {
+            // Epochs only grow: keep local bumps a concurrent load might have missed
+            epochs.forEach((username, epoch) -> loaded.merge(username, epoch, Math::max));
+            epochs = Map.copyOf(loaded);
+        }
+        log.debug("Loaded {} revoked token epochs", loaded.size());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.proiect.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Short-lived cache of {@link UserDetails} for request authentication, so an active user
+ * does not cost a user and roles query per request. Entries are evicted as soon as the
+ * user is disabled; other changes are picked up once the TTL expires.
+ * Login keeps using {@link UserDetailsService} directly and always sees the database.
+ * <p>
+ * A lookup that started before an eviction must not cache what it read: each eviction
+ * bumps a generation (striped by username), and a load only stays cached if the
+ * generation it started with is unchanged after it was stored.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDetailsCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final UserDetailsService userDetailsService;
+
+    @Value("${security.user-cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${security.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private ExpiringCache<String, UserDetails> users;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @PostConstruct
+    public void init() {
+        users = new ExpiringCache<>(maxEntries);
+    }
+
+    public UserDetails get(String username) {
+        UserDetails userDetails = users.get(username);
+        if (userDetails == null) {
+            int stripe = stripe(username);
+            long generation = generations.get(stripe);
+            userDetails = userDetailsService.loadUserByUsername(username);
+            users.put(username, userDetails, System.currentTimeMillis() + ttlMillis);
+            // Evicted while loading: what was read may predate the change
+            if (generations.get(stripe) != generation) {
+                users.remove(username);
+            }
+        }
+        return userDetails;
+    }
+
+    public void evict(String username) {
+        // Bumped before removing, so a concurrent load either sees the bump or is removed here
+        generations.incrementAndGet(stripe(username));
+        users.remove(username);
+    }
+
+    private static int stripe(String username) {
+        return Math.floorMod(username.hashCode(), GENERATION_STRIPES);
+    }
+}
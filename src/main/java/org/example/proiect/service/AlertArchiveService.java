@@ -0,0 +1,119 @@
+package org.example.proiect.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.config.SchedulingConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly partitions of {@code alerts}. Partitions are created ahead of time,
+ * and partitions older than the retention period are detached and either moved to the
+ * {@code alerts_archive} schema or dropped, so retention never runs a long DELETE against
+ * the live table.
+ * <p>
+ * Runs outside a transaction: {@code DETACH PARTITION ... CONCURRENTLY} only takes a
+ * SHARE UPDATE EXCLUSIVE lock on {@code alerts}, so reads and inserts carry on, but it
+ * cannot run inside a transaction block. Creating a partition still locks {@code alerts}
+ * exclusively for a moment, so every statement runs with {@code lock_timeout} and is
+ * retried on the next run instead of queueing all alert traffic behind it. A detach
+ * interrupted half way is finalized on the next run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertArchiveService {
+
+    private static final String PARTITION_PREFIX = "alerts_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${alerts.retention.months:6}")
+    private int retentionMonths;
+
+    @Value("${alerts.retention.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${alerts.retention.archive:true}")
+    private boolean archive;
+
+    @Value("${alerts.retention.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${alerts.retention.cron:0 15 3 * * *}", scheduler = SchedulingConfig.BACKGROUND_SCHEDULER)
+    public void maintainPartitions() {
+        // One session, so lock_timeout applies to every statement and is reset before the connection goes back
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.execute("SET lock_timeout = " + lockTimeoutMs);
+            try {
+                maintainPartitions(session);
+            } finally {
+                session.execute("RESET lock_timeout");
+            }
+            return null;
+        });
+    }
+
+    private void maintainPartitions(JdbcTemplate session) {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            try {
+                session.queryForObject("SELECT create_alert_partition(?)", String.class, month);
+            } catch (DataAccessException e) {
+                log.warn("Could not create the alert partition for {}, retrying on the next run", month, e);
+            }
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (Partition partition : listPartitions(session)) {
+            YearMonth month = YearMonth.parse(partition.name().substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+            if (month.isBefore(oldestKept)) {
+                try {
+                    retire(session, partition);
+                } catch (DataAccessException e) {
+                    log.warn("Could not retire alert partition {}, retrying on the next run", partition.name(), e);
+                }
+            }
+        }
+    }
+
+    private List<Partition> listPartitions(JdbcTemplate session) {
+        return session.query("""
+                SELECT c.relname, i.inhdetachpending FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'alerts' AND c.relname LIKE 'alerts\\_p%'
+                ORDER BY c.relname
+                """, (rs, rowNum) -> new Partition(rs.getString(1), rs.getBoolean(2)));
+    }
+
+    private void retire(JdbcTemplate session, Partition partition) {
+        session.execute("ALTER TABLE alerts DETACH PARTITION " + partition.name()
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+        if (archive) {
+            session.execute("ALTER TABLE " + partition.name() + " SET SCHEMA alerts_archive");
+            log.info("Archived alert partition {} to alerts_archive", partition.name());
+        } else {
+            session.execute("DROP TABLE " + partition.name());
+            log.info("Dropped alert partition {}", partition.name());
+        }
+    }
+
+    private record Partition(String name, boolean detachPending) {}
+}
@@ -0,0 +1,165 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.alerting.ThresholdRuleIndex;
+import org.example.proiect.dto.AlertRuleDto;
+import org.example.proiect.dto.AlertRuleRequest;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.model.AlertRule;
+import org.example.proiect.model.Symbol;
+import org.example.proiect.model.User;
+import org.example.proiect.repository.AlertRuleRepository;
+import org.example.proiect.repository.SymbolRepository;
+import org.example.proiect.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * User-defined threshold rules. Active rules are mirrored in a {@link ThresholdRuleIndex}
+ * so each committed tick only touches the rules it actually crosses.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleService {
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final SymbolRepository symbolRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+    private final MeterRegistry meterRegistry;
+
+    private final ThresholdRuleIndex index = new ThresholdRuleIndex();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("stock_market.alert_rules.active", index, ThresholdRuleIndex::size)
+                .description("Threshold alert rules currently evaluated on every tick")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveRules() {
+        List<ThresholdRuleIndex.Rule> rules = alertRuleRepository.findAllActiveWithSymbol().stream()
+                .map(this::toIndexRule)
+                .collect(Collectors.toList());
+        index.addAll(rules);
+        log.info("Loaded {} active threshold alert rules", rules.size());
+    }
+
+    public List<AlertRuleDto> getRules(String username) {
+        return alertRuleRepository.findByUser(findUser(username)).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public AlertRuleDto createRule(String username, AlertRuleRequest request) {
+        Symbol symbol = symbolRepository.findByTicker(request.getTicker().toUpperCase())
+                .orElseThrow(() -> new RuntimeException("Symbol not found: " + request.getTicker()));
+
+        AlertRule rule = AlertRule.builder()
+                .user(findUser(username))
+                .symbol(symbol)
+                .ruleType(request.getRuleType())
+                .threshold(request.getThreshold())
+                .isActive(true)
+                .build();
+
+        rule = alertRuleRepository.save(rule);
+        ThresholdRuleIndex.Rule indexed = toIndexRule(rule);
+        // Evaluated only once committed: an earlier alert would reference a rolled-back rule
+        afterCommit(() -> index.add(indexed));
+        log.info("Created {} rule for {} at {} (user {})", rule.getRuleType(), symbol.getTicker(),
+                rule.getThreshold(), username);
+
+        return toDto(rule);
+    }
+
+    @Transactional
+    public void deleteRule(String username, Long id) {
+        AlertRule rule = alertRuleRepository.findByIdAndUser(id, findUser(username))
+                .orElseThrow(() -> new RuntimeException("Alert rule not found: " + id));
+        alertRuleRepository.delete(rule);
+        long ruleId = rule.getId();
+        // A rolled-back delete keeps the rule firing
+        afterCommit(() -> index.remove(ruleId));
+    }
+
+    /**
+     * Creates a THRESHOLD_BREACH alert for every rule the tick crossed, owned by and sent to
+     * the rule's user.
+     */
+    public void evaluate(Symbol symbol, PriceDto price) {
+        double percentChange = price.getPercentChange() != null
+                ? price.getPercentChange().doubleValue()
+                : Double.NaN;
+
+        for (ThresholdRuleIndex.Rule rule : index.evaluate(symbol.getTicker(),
+                price.getPrice().doubleValue(), percentChange)) {
+            BigDecimal triggerValue = switch (rule.type()) {
+                case PRICE_ABOVE, PRICE_BELOW -> price.getPrice();
+                case PERCENT_CHANGE_ABOVE, PERCENT_CHANGE_BELOW -> price.getPercentChange();
+            };
+            alertService.createRuleAlert(symbol, rule.userId(), rule.username(), message(rule, triggerValue),
+                    triggerValue, rule.threshold());
+        }
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+
+    private static String message(ThresholdRuleIndex.Rule rule, BigDecimal triggerValue) {
+        String threshold = rule.threshold().stripTrailingZeros().toPlainString();
+        return switch (rule.type()) {
+            case PRICE_ABOVE -> String.format("%s price crossed above %s: %s", rule.ticker(), threshold, triggerValue);
+            case PRICE_BELOW -> String.format("%s price crossed below %s: %s", rule.ticker(), threshold, triggerValue);
+            case PERCENT_CHANGE_ABOVE -> String.format("%s change crossed above %s%%: %s%%", rule.ticker(), threshold, triggerValue);
+            case PERCENT_CHANGE_BELOW -> String.format("%s change crossed below %s%%: %s%%", rule.ticker(), threshold, triggerValue);
+        };
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private ThresholdRuleIndex.Rule toIndexRule(AlertRule rule) {
+        return new ThresholdRuleIndex.Rule(rule.getId(), rule.getSymbol().getTicker(), rule.getRuleType(),
+                rule.getThreshold(), rule.getUser().getId(), rule.getUser().getUsername());
+    }
+
+    private AlertRuleDto toDto(AlertRule rule) {
+        return AlertRuleDto.builder()
+                .id(rule.getId())
+                .ticker(rule.getSymbol().getTicker())
+                .ruleType(rule.getRuleType())
+                .threshold(rule.getThreshold())
+                .isActive(rule.getIsActive())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+}
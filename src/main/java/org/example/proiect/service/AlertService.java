@@ -2,19 +2,34 @@ package org.example.proiect.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.alerting.AlertSuppressor;
 import org.example.proiect.dto.AlertDto;
+import org.example.proiect.event.AlertCreatedEvent;
 import org.example.proiect.model.Alert;
+import org.example.proiect.model.AlertReadCursor;
 import org.example.proiect.model.Symbol;
+import org.example.proiect.repository.AlertReadCursorRepository;
 import org.example.proiect.repository.AlertRepository;
 import org.example.proiect.repository.SymbolRepository;
+import org.example.proiect.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,70 +38,221 @@ public class AlertService {
 
     private final AlertRepository alertRepository;
     private final SymbolRepository symbolRepository;
-    private final WebSocketService webSocketService;
+    private final UserRepository userRepository;
+    private final AlertReadCursorRepository alertReadCursorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadAlertCounter unreadAlertCounter;
+    private final AlertSuppressor alertSuppressor;
+    private final MetricsService metricsService;
+    private final DataVersion dataVersion;
+    private final SingleFlight singleFlight;
 
-    public List<AlertDto> getRecentAlerts(int hours) {
+    private static final Comparator<AlertDto> NEWEST_FIRST =
+            Comparator.comparing(AlertDto::getTimestamp).thenComparing(AlertDto::getId).reversed();
+
+    @Value("${alerts.query.max-results:500}")
+    private int maxResults;
+
+    /**
+     * The alert rows every user sees are the same for all of them and loaded once for
+     * concurrent identical calls; the user's own rule alerts and the read flags are applied
+     * per user.
+     */
+    public List<AlertDto> getRecentAlerts(String username, int hours, int limit) {
+        int bounded = boundedLimit(limit);
+        Long userId = findUserId(username);
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return alertRepository.findRecentAlerts(since).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        List<AlertDto> shared = singleFlight.execute("recent_alerts", List.of(hours, bounded), () ->
+                alertRepository.findRecentAlerts(since, PageRequest.of(0, bounded)).stream()
+                        .map(alert -> toDto(alert, false))
+                        .toList());
+        List<AlertDto> own = alertRepository.findRecentOwnedAlerts(userId, since, PageRequest.of(0, bounded)).stream()
+                .map(alert -> toDto(alert, false))
+                .toList();
+        return withReadState(newestFirst(shared, own, bounded), readState(userId));
     }
 
-    public List<AlertDto> getUnreadAlerts() {
-        return alertRepository.findByIsReadFalseOrderByTimestampDesc().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    public List<AlertDto> getUnreadAlerts(String username, int limit) {
+        int bounded = boundedLimit(limit);
+        return singleFlight.execute("unread_alerts", List.of(username, bounded), () -> {
+            Long userId = findUserId(username);
+            AlertReadCursor cursor = cursor(userId);
+            return alertRepository.findUnread(userId, cursor.getReadUntilTimestamp(), cursor.getReadUntilId(),
+                            bounded).stream()
+                    .map(alert -> toDto(alert, false))
+                    .collect(Collectors.toList());
+        });
     }
 
-    public List<AlertDto> getAlertsBySymbol(String ticker, int limit) {
-        Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
-                .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
+    public List<AlertDto> getAlertsBySymbol(String username, String ticker, int limit) {
+        int bounded = boundedLimit(limit);
+        Long userId = findUserId(username);
+        String normalized = ticker.toUpperCase();
+        List<AlertDto> shared = singleFlight.execute("symbol_alerts", List.of(normalized, bounded), () -> {
+            Symbol symbol = symbolRepository.findByTicker(normalized)
+                    .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
+            return alertRepository.findBySymbolAndUserIdIsNullOrderByTimestampDescIdDesc(symbol, PageRequest.of(0, bounded))
+                    .stream()
+                    .map(alert -> toDto(alert, false))
+                    .toList();
+        });
+        List<AlertDto> own = alertRepository.findOwnedBySymbol(normalized, userId, PageRequest.of(0, bounded)).stream()
+                .map(alert -> toDto(alert, false))
+                .toList();
+        return withReadState(newestFirst(shared, own, bounded), readState(userId));
+    }
 
-        return alertRepository.findBySymbolOrderByTimestampDesc(symbol, PageRequest.of(0, limit))
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Writes and broadcasts an alert unless storm suppression holds it back for this
+     * (symbol, type), in which case it is only counted. Always commits on its own: callers
+     * run after the ingestion commit, where a joined transaction would never commit again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<AlertDto> createAlert(Symbol symbol, Alert.AlertType alertType, String message,
+                                          BigDecimal triggerValue, BigDecimal thresholdValue) {
+        Optional<AlertSuppressor.Permit> permit =
+                alertSuppressor.tryAcquire(symbol, alertType, message, triggerValue, thresholdValue);
+        if (permit.isEmpty()) {
+            metricsService.incrementSuppressedAlerts(alertType);
+            log.debug("Suppressed alert for {}: {} - {}", symbol.getTicker(), alertType, message);
+            return Optional.empty();
+        }
+        releaseOnRollback(permit.get());
+        return Optional.of(save(symbol, alertType, message, triggerValue, thresholdValue, null, null));
+    }
+
+    /**
+     * Writes a THRESHOLD_BREACH alert owned by the user whose rule was crossed and sends it
+     * to that user only. Not subject to storm suppression, which is shared per symbol: the
+     * rule index already reports each crossing once.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public AlertDto createRuleAlert(Symbol symbol, Long ownerId, String owner, String message,
+                                    BigDecimal triggerValue, BigDecimal thresholdValue) {
+        return save(symbol, Alert.AlertType.THRESHOLD_BREACH, message, triggerValue, thresholdValue, ownerId, owner);
     }
 
+    /**
+     * Writes one summary alert per coalescing window that suppressed alerts.
+     */
+    @Scheduled(fixedDelayString = "${alerts.suppression.flush-interval-ms:1000}")
     @Transactional
-    public AlertDto createAlert(Symbol symbol, Alert.AlertType alertType, String message,
-                                BigDecimal triggerValue, BigDecimal thresholdValue) {
+    public void flushSuppressedAlerts() {
+        for (AlertSuppressor.Summary summary : alertSuppressor.drainExpired()) {
+            String message = String.format("%d similar alerts suppressed, latest: %s",
+                    summary.suppressed(), summary.lastMessage());
+            save(summary.symbol(), summary.alertType(), message, summary.triggerValue(), summary.thresholdValue(),
+                    null, null);
+        }
+    }
+
+    private AlertDto save(Symbol symbol, Alert.AlertType alertType, String message,
+                          BigDecimal triggerValue, BigDecimal thresholdValue, Long ownerId, String owner) {
+        // Before the timestamp and id are taken, so they follow commit order
+        alertRepository.lockInserts();
         Alert alert = Alert.builder()
                 .symbol(symbol)
                 .alertType(alertType)
                 .message(message)
                 .triggerValue(triggerValue)
                 .thresholdValue(thresholdValue)
+                .userId(ownerId)
                 .timestamp(LocalDateTime.now())
-                .isRead(false)
                 .build();
 
         alert = alertRepository.save(alert);
+        unreadAlertCounter.alertCreated(ownerId);
+        dataVersion.bump();
+        metricsService.incrementAlerts(alertType);
         log.info("Created alert for {}: {} - {}", symbol.getTicker(), alertType, message);
 
-        AlertDto alertDto = toDto(alert);
+        AlertDto alertDto = toDto(alert, false);
 
-        // Broadcast alert via WebSocket
-        webSocketService.broadcastAlert(alertDto);
+        // Broadcast alert via WebSocket once committed
+        eventPublisher.publishEvent(new AlertCreatedEvent(alertDto, owner));
 
         return alertDto;
     }
 
     @Transactional
-    public void markAsRead(Long id) {
-        alertRepository.markAsRead(id);
+    public void markAsRead(String username, Long id) {
+        Long userId = findUserId(username);
+        AlertReadCursor cursor = cursor(userId);
+        int marked = alertReadCursorRepository.insertException(userId, id,
+                cursor.getReadUntilTimestamp(), cursor.getReadUntilId());
+        unreadAlertCounter.markedRead(userId, marked);
+        dataVersion.bump();
     }
 
+    /**
+     * Moves the user's read cursor to the newest committed alert: a single-row upsert,
+     * independent of how many alerts were unread. Alerts still being written lie after it,
+     * since inserts are serialized until commit (see {@link AlertRepository#lockInserts()}).
+     */
     @Transactional
-    public void markAllAsRead() {
-        alertRepository.markAllAsRead();
+    public void markAllAsRead(String username) {
+        Long userId = findUserId(username);
+        alertReadCursorRepository.advanceToLatest(userId);
+        // Everything individually read is now behind the cursor
+        alertReadCursorRepository.deleteExceptions(userId);
+        unreadAlertCounter.markedAllRead(userId);
+        dataVersion.bump();
+    }
+
+    public long getUnreadCount(String username) {
+        return unreadAlertCounter.get(findUserId(username), username);
+    }
+
+    // An alert that is never committed must not use up its window's slot
+    private static void releaseOnRollback(AlertSuppressor.Permit permit) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    permit.release();
+                }
+            }
+        });
     }
 
-    public long getUnreadCount() {
-        return alertRepository.countByIsReadFalse();
+    // Keeps list latency flat however much history the window covers
+    private int boundedLimit(int limit) {
+        return Math.max(1, Math.min(limit, maxResults));
     }
 
-    private AlertDto toDto(Alert alert) {
+    private Long findUserId(String username) {
+        return userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+
+    private AlertReadCursor cursor(Long userId) {
+        return alertReadCursorRepository.findById(userId)
+                .orElseGet(() -> AlertReadCursor.initial(userId));
+    }
+
+    private ReadState readState(Long userId) {
+        return new ReadState(cursor(userId), Set.copyOf(alertReadCursorRepository.findExceptionIds(userId)));
+    }
+
+    // Both lists are newest first
+    private static List<AlertDto> newestFirst(List<AlertDto> shared, List<AlertDto> own, int limit) {
+        if (own.isEmpty()) {
+            return shared;
+        }
+        return Stream.concat(shared.stream(), own.stream())
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    // Copies, since the shared list is handed to every coalesced caller
+    private static List<AlertDto> withReadState(List<AlertDto> alerts, ReadState readState) {
+        return alerts.stream()
+                .map(alert -> alert.toBuilder().isRead(readState.isRead(alert)).build())
+                .collect(Collectors.toList());
+    }
+
+    private AlertDto toDto(Alert alert, boolean isRead) {
         return AlertDto.builder()
                 .id(alert.getId())
                 .ticker(alert.getSymbol().getTicker())
@@ -95,8 +261,14 @@ public class AlertService {
                 .message(alert.getMessage())
                 .triggerValue(alert.getTriggerValue())
                 .thresholdValue(alert.getThresholdValue())
-                .isRead(alert.getIsRead())
+                .isRead(isRead)
                 .timestamp(alert.getTimestamp())
                 .build();
     }
-}
\ No newline at end of file
+
+    private record ReadState(AlertReadCursor cursor, Set<Long> exceptions) {
+        boolean isRead(AlertDto alert) {
+            return cursor.covers(alert.getTimestamp(), alert.getId()) || exceptions.contains(alert.getId());
+        }
+    }
+}
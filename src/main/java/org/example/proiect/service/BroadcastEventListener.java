@@ -0,0 +1,89 @@
+package org.example.proiect.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.dto.IndicatorSnapshot;
+import org.example.proiect.event.AlertCreatedEvent;
+import org.example.proiect.event.PriceSavedEvent;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fans out committed prices and alerts. Price handling is handed to the broadcast executor
+ * so the ingestion thread can release its database connection right after commit. Ticks of
+ * one ticker share a lane, so indicators, rule crossings and stream sequence numbers see
+ * them one at a time and in order.
+ */
+@Service
+@Slf4j
+public class BroadcastEventListener {
+
+    private final WebSocketService webSocketService;
+    private final AlertService alertService;
+    private final AlertRuleService alertRuleService;
+    private final IndicatorService indicatorService;
+    private final CorrelationService correlationService;
+    private final MetricsService metricsService;
+    private final KeyedSerialExecutor broadcastExecutor;
+    private final boolean includeIndicators;
+
+    public BroadcastEventListener(WebSocketService webSocketService,
+                                  AlertService alertService,
+                                  AlertRuleService alertRuleService,
+                                  IndicatorService indicatorService,
+                                  CorrelationService correlationService,
+                                  MetricsService metricsService,
+                                  @Qualifier("broadcastExecutor") KeyedSerialExecutor broadcastExecutor,
+                                  @Value("${indicators.include-in-broadcast:false}") boolean includeIndicators) {
+        this.webSocketService = webSocketService;
+        this.alertService = alertService;
+        this.alertRuleService = alertRuleService;
+        this.indicatorService = indicatorService;
+        this.correlationService = correlationService;
+        this.metricsService = metricsService;
+        this.broadcastExecutor = broadcastExecutor;
+        this.includeIndicators = includeIndicators;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPriceSaved(PriceSavedEvent event) {
+        long committedAt = System.nanoTime();
+        broadcastExecutor.execute(event.price().getTicker(), () -> {
+            metricsService.recordBroadcastLag(System.nanoTime() - committedAt);
+
+            IndicatorSnapshot indicators = indicatorService.update(event.price());
+            if (includeIndicators) {
+                event.price().setIndicators(indicators);
+            }
+            correlationService.update(event.price());
+
+            // Broadcast price update via WebSocket
+            long started = System.nanoTime();
+            webSocketService.broadcastPriceUpdate(event.price());
+            metricsService.recordStage(MetricsService.IngestionStage.BROADCAST, System.nanoTime() - started);
+            metricsService.recordEndToEndLag(event.price().getTimestamp());
+
+            // Create alert if anomaly detected
+            if (event.alertType() != null) {
+                started = System.nanoTime();
+                alertService.createAlert(event.symbol(), event.alertType(), event.alertMessage(),
+                        event.price().getPrice(), event.price().getPercentChange());
+                metricsService.recordStage(MetricsService.IngestionStage.ALERT_CREATION, System.nanoTime() - started);
+            }
+
+            // User-defined threshold rules crossed by this tick
+            alertRuleService.evaluate(event.symbol(), event.price());
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertCreated(AlertCreatedEvent event) {
+        if (event.owner() != null) {
+            webSocketService.sendAlert(event.owner(), event.alert());
+        } else {
+            webSocketService.broadcastAlert(event.alert());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.config.SchedulingConfig;
+import org.example.proiect.dto.CorrelationMatrixDto;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.indicator.CorrelationSnapshot;
+import org.example.proiect.indicator.RollingCovarianceMatrix;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Rolling cross-symbol covariance, correlation and volatility of log returns.
+ * Ticks only record the latest price. A sampler turns the latest prices into one aligned
+ * return per symbol every interval and folds it into the running pairwise sums; a full
+ * recompute runs on a dedicated fork/join pool once per window to shed rounding drift.
+ * Each sample publishes an immutable snapshot, so requests never wait on the computation.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CorrelationService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${correlation.window:300}")
+    private int window;
+
+    @Value("${correlation.sample-interval-ms:1000}")
+    private long sampleIntervalMillis;
+
+    @Value("${correlation.parallelism:0}")
+    private int parallelism;
+
+    private final Map<String, Double> latestPrices = new ConcurrentHashMap<>();
+
+    // Owned by the sampler thread
+    private RollingCovarianceMatrix matrix;
+    private double[] sampledPrices = new double[0];
+    private int samplesSinceRecompute;
+
+    private ForkJoinPool pool;
+    private Timer recomputeTimer;
+    private volatile CorrelationSnapshot snapshot = CorrelationSnapshot.empty();
+
+    @PostConstruct
+    public void init() {
+        matrix = new RollingCovarianceMatrix(window);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        recomputeTimer = Timer.builder("stock_market.correlation.recompute")
+                .description("Time to recompute the correlation matrix from the full window")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public void update(PriceDto price) {
+        latestPrices.put(price.getTicker(), price.getPrice().doubleValue());
+    }
+
+    @Scheduled(fixedRateString = "${correlation.sample-interval-ms:1000}", scheduler = SchedulingConfig.BACKGROUND_SCHEDULER)
+    public void sample() {
+        if (latestPrices.isEmpty()) {
+            return;
+        }
+        latestPrices.forEach((ticker, price) -> {
+            if (matrix.indexOf(ticker) < 0) {
+                int index = matrix.add(ticker);
+                sampledPrices = Arrays.copyOf(sampledPrices, index + 1);
+                sampledPrices[index] = price;
+                log.debug("Added {} to the correlation matrix", ticker);
+            }
+        });
+
+        int n = matrix.size();
+        double[] returns = new double[n];
+        for (int i = 0; i < n; i++) {
+            double current = latestPrices.get(matrix.name(i));
+            double previous = sampledPrices[i];
+            // No tick during the interval is a zero return, as is an unusable price
+            returns[i] = current > 0 && previous > 0 ? Math.log(current / previous) : 0;
+            sampledPrices[i] = current;
+        }
+        matrix.append(returns);
+
+        if (++samplesSinceRecompute >= window) {
+            samplesSinceRecompute = 0;
+            recomputeTimer.record(() -> matrix.recompute(pool));
+        }
+        snapshot = matrix.snapshot(pool, LocalDateTime.now());
+    }
+
+    /**
+     * Latest matrix, optionally restricted to the given tickers (in that order).
+     */
+    public CorrelationMatrixDto getMatrix(List<String> tickers) {
+        CorrelationSnapshot current = snapshot;
+        int[] indices;
+        if (tickers == null || tickers.isEmpty()) {
+            indices = new int[current.tickers().size()];
+            Arrays.setAll(indices, i -> i);
+        } else {
+            indices = tickers.stream()
+                    .map(String::toUpperCase)
+                    .mapToInt(ticker -> {
+                        int index = current.tickers().indexOf(ticker);
+                        if (index < 0) {
+                            throw new RuntimeException("No correlation data for symbol: " + ticker);
+                        }
+                        return index;
+                    })
+                    .toArray();
+        }
+
+        int n = indices.length;
+        Double[] volatility = new Double[n];
+        Double[][] covariance = new Double[n][n];
+        Double[][] correlation = new Double[n][n];
+        for (int a = 0; a < n; a++) {
+            volatility[a] = valueOrNull(current.volatility()[indices[a]]);
+            for (int b = 0; b < n; b++) {
+                covariance[a][b] = valueOrNull(current.covariance(indices[a], indices[b]));
+                correlation[a][b] = valueOrNull(current.correlation(indices[a], indices[b]));
+            }
+        }
+
+        return CorrelationMatrixDto.builder()
+                .timestamp(current.timestamp())
+                .window(window)
+                .samples(current.samples())
+                .sampleIntervalMs(sampleIntervalMillis)
+                .tickers(Arrays.stream(indices).mapToObj(current.tickers()::get).toList())
+                .volatility(volatility)
+                .covariance(covariance)
+                .correlation(correlation)
+                .build();
+    }
+
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.proiect.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.dto.IndicatorSnapshot;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.indicator.IndicatorSettings;
+import org.example.proiect.indicator.IndicatorState;
+import org.example.proiect.model.Price;
+import org.example.proiect.repository.PriceRepository;
+import org.example.proiect.repository.SymbolRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps EMA, VWAP, SMA, standard deviation, RSI and Bollinger bands per ticker, updated
+ * in O(1) as committed ticks are broadcast. A ticker's state is warmed up from its most
+ * recent stored prices the first time it is touched; when a tick touches it first, only
+ * from the prices before that tick, which is already stored by then.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IndicatorService {
+
+    private final PriceRepository priceRepository;
+    private final SymbolRepository symbolRepository;
+    private final MetricsService metricsService;
+
+    @Value("${indicators.window:20}")
+    private int window;
+
+    @Value("${indicators.ema-period:20}")
+    private int emaPeriod;
+
+    @Value("${indicators.rsi-period:14}")
+    private int rsiPeriod;
+
+    @Value("${indicators.bollinger-k:2.0}")
+    private double bollingerK;
+
+    @Value("${indicators.warmup-ticks:100}")
+    private int warmupTicks;
+
+    private final Map<String, IndicatorState> states = new ConcurrentHashMap<>();
+    private IndicatorSettings settings;
+
+    @PostConstruct
+    public void init() {
+        settings = new IndicatorSettings(window, emaPeriod, rsiPeriod, bollingerK);
+    }
+
+    public IndicatorSnapshot update(PriceDto price) {
+        IndicatorState state = stateFor(price.getTicker(), price.getTimestamp());
+        synchronized (state) {
+            if (!state.update(price.getPrice().doubleValue(), volume(price.getVolume()), price.getTimestamp())) {
+                metricsService.incrementOutOfOrderTicks();
+            }
+            return state.snapshot();
+        }
+    }
+
+    public IndicatorSnapshot getIndicators(String ticker) {
+        String normalized = ticker.toUpperCase();
+        if (!states.containsKey(normalized) && !symbolRepository.existsByTicker(normalized)) {
+            throw new RuntimeException("Symbol not found: " + ticker);
+        }
+        IndicatorState state = stateFor(normalized, null);
+        synchronized (state) {
+            return state.snapshot();
+        }
+    }
+
+    /**
+     * Warms up outside the map: computeIfAbsent would run the query under a bin monitor,
+     * pinning virtual threads while they wait for a pooled connection. Concurrent first
+     * ticks may each load the history; one state wins and the others are dropped.
+     */
+    private IndicatorState stateFor(String ticker, LocalDateTime before) {
+        IndicatorState state = states.get(ticker);
+        if (state != null) {
+            return state;
+        }
+        IndicatorState warmed = warmUp(ticker, before);
+        IndicatorState existing = states.putIfAbsent(ticker, warmed);
+        return existing != null ? existing : warmed;
+    }
+
+    /**
+     * @param before excludes the tick being applied and anything after it, or {@code null} for all stored prices
+     */
+    private IndicatorState warmUp(String ticker, LocalDateTime before) {
+        IndicatorState state = new IndicatorState(ticker, settings);
+        PageRequest page = PageRequest.of(0, warmupTicks);
+        List<Price> recent = before != null
+                ? priceRepository.findByTickerBeforeOrderByTimestampDesc(ticker, before, page)
+                : priceRepository.findByTickerOrderByTimestampDesc(ticker, page);
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            Price price = recent.get(i);
+            state.update(price.getPrice().doubleValue(), volume(price.getVolume()), price.getTimestamp());
+        }
+        log.debug("Warmed up indicators for {} from {} stored prices", ticker, recent.size());
+        return state;
+    }
+
+    private static double volume(BigDecimal volume) {
+        return volume != null ? volume.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.proiect.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks with the same key one at a time, in submission order, on one of a fixed number
+ * of single-threaded lanes picked by the key's hash. Different keys may share a lane. When
+ * a lane's queue is full the submitting thread waits for room; it never runs the task
+ * itself, so a task never executes inside the caller's transaction callbacks.
+ */
+@Slf4j
+public class KeyedSerialExecutor implements DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ThreadPoolExecutor[] lanes;
+
+    /**
+     * @param queueCapacity pending tasks across all lanes, split evenly between them
+     */
+    public KeyedSerialExecutor(int lanes, int queueCapacity, ThreadFactory threadFactory) {
+        this.lanes = new ThreadPoolExecutor[lanes];
+        int laneCapacity = Math.max(1, queueCapacity / lanes);
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(laneCapacity), threadFactory, KeyedSerialExecutor::waitForRoom);
+        }
+    }
+
+    public void execute(Object key, Runnable task) {
+        lanes[Math.floorMod(key.hashCode(), lanes.length)].execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Keeps the lane's thread, and so the order of the tasks behind this one
+                log.error("Task for {} failed", key, e);
+            }
+        });
+    }
+
+    /**
+     * Tasks waiting across all lanes.
+     */
+    public int queued() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Discarding {} tasks still queued at shutdown", lane.shutdownNow().size());
+            }
+        }
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free queue slot", e);
+        }
+    }
+}
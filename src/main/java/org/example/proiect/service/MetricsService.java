@@ -1,13 +1,25 @@
 package org.example.proiect.service;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.model.Alert;
+import org.example.proiect.ratelimit.AdaptiveConcurrencyLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -15,11 +27,37 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class MetricsService {
 
+    /**
+     * Steps of price ingestion timed separately, from the lookup of the tick's symbol to the
+     * alert it may raise after commit.
+     */
+    public enum IngestionStage {
+        SYMBOL_RESOLUTION, PERSIST, COMMIT, BROADCAST, ALERT_CREATION
+    }
+
+    private static final Duration[] STAGE_SLOS = millis(1, 5, 10, 25, 50, 100, 250, 500, 1000);
+    private static final Duration[] END_TO_END_SLOS = millis(10, 50, 100, 250, 500, 1000, 2500, 5000);
+    private static final String OTHER_TICKER = "other";
+
     private final MeterRegistry meterRegistry;
 
+    @Value("${metrics.ingestion.max-ticker-tags:100}")
+    private int maxTickerTags;
+
     private Counter priceUpdatesCounter;
     private Counter alertsCounter;
     private Timer processingTimer;
+    private Timer broadcastLagTimer;
+    private Counter slowConsumerDisconnectsCounter;
+    private Counter droppedMessagesCounter;
+    private Counter conflatedMessagesCounter;
+    private Counter outboundRejectedCounter;
+    private Counter outOfOrderTicksCounter;
+    private Timer endToEndLagTimer;
+    private DistributionSummary batchSizeSummary;
+    private final Map<IngestionStage, Timer> stageTimers = new EnumMap<>(IngestionStage.class);
+    private final Map<Alert.AlertType, Counter> alertsByType = new EnumMap<>(Alert.AlertType.class);
+    private final Map<String, Counter> priceUpdatesByTicker = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
@@ -37,20 +75,178 @@ public class MetricsService {
                 .description("Time taken to process price data")
                 .tag("application", "stock-market-gateway")
                 .register(meterRegistry);
+
+        broadcastLagTimer = Timer.builder("stock_market.broadcast.lag")
+                .description("Delay between the ingestion commit and the start of the broadcast")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        slowConsumerDisconnectsCounter = Counter.builder("stock_market.websocket.slow_consumer_disconnects")
+                .description("WebSocket sessions closed because they could not keep up")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        droppedMessagesCounter = Counter.builder("stock_market.websocket.dropped_messages")
+                .description("Messages discarded for slow WebSocket sessions")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        conflatedMessagesCounter = Counter.builder("stock_market.websocket.conflated_messages")
+                .description("Messages superseded by a newer one before reaching a slow WebSocket session")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        outboundRejectedCounter = Counter.builder("stock_market.websocket.outbound_rejected")
+                .description("Messages dropped because the STOMP outbound channel queue was full")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        outOfOrderTicksCounter = Counter.builder("stock_market.indicators.out_of_order_ticks")
+                .description("Ticks left out of the indicators because they were not newer than the last applied one")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        // Percentile histograms bounded to the expected range, plus SLO buckets, for every stage
+        for (IngestionStage stage : IngestionStage.values()) {
+            stageTimers.put(stage, Timer.builder("stock_market.ingestion.stage")
+                    .description("Time spent in one stage of price ingestion")
+                    .tag("application", "stock-market-gateway")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(STAGE_SLOS)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+
+        endToEndLagTimer = Timer.builder("stock_market.ingestion.end_to_end_lag")
+                .description("Delay from a tick's own timestamp to its broadcast")
+                .tag("application", "stock-market-gateway")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(END_TO_END_SLOS)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(1))
+                .register(meterRegistry);
+
+        batchSizeSummary = DistributionSummary.builder("stock_market.ingestion.batch_size")
+                .description("Ticks per batch ingestion request")
+                .tag("application", "stock-market-gateway")
+                .serviceLevelObjectives(1, 10, 50, 100, 250, 500, 1000)
+                .register(meterRegistry);
+
+        for (Alert.AlertType alertType : Alert.AlertType.values()) {
+            alertsByType.put(alertType, Counter.builder("stock_market.alerts.by_type")
+                    .description("Alerts generated per alert type")
+                    .tag("application", "stock-market-gateway")
+                    .tag("alert_type", alertType.name())
+                    .register(meterRegistry));
+        }
     }
 
-    public void incrementPriceUpdates() {
+    /**
+     * Counts a processed tick in total and for its ticker. Only the first
+     * {@code metrics.ingestion.max-ticker-tags} tickers seen get their own series; later
+     * ones share {@code ticker="other"}, since any user can create symbols.
+     */
+    public void incrementPriceUpdates(String ticker) {
         priceUpdatesCounter.increment();
+        Counter counter = priceUpdatesByTicker.get(ticker);
+        if (counter == null) {
+            String tag = priceUpdatesByTicker.size() < maxTickerTags ? ticker : OTHER_TICKER;
+            counter = priceUpdatesByTicker.computeIfAbsent(tag, t ->
+                    Counter.builder("stock_market.price_updates.by_ticker")
+                            .description("Price updates processed per ticker")
+                            .tag("application", "stock-market-gateway")
+                            .tag("ticker", t)
+                            .register(meterRegistry));
+        }
+        counter.increment();
     }
 
-    public void incrementAlerts() {
+    public void incrementAlerts(Alert.AlertType alertType) {
         alertsCounter.increment();
+        alertsByType.get(alertType).increment();
+    }
+
+    public void recordStage(IngestionStage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how long ago the tick was stamped. Tick timestamps are UTC, as the analytics
+     * service sends them; negative lags from clock skew are dropped.
+     */
+    public void recordEndToEndLag(LocalDateTime tickTimestamp) {
+        Duration lag = Duration.between(tickTimestamp.toInstant(ZoneOffset.UTC), Instant.now());
+        if (!lag.isNegative()) {
+            endToEndLagTimer.record(lag);
+        }
+    }
+
+    public void recordBatchSize(int ticks) {
+        batchSizeSummary.record(ticks);
+    }
+
+    public void incrementSuppressedAlerts(Alert.AlertType alertType) {
+        // One series per alert type; the enum keeps cardinality bounded
+        Counter.builder("stock_market.alerts.suppressed")
+                .description("Alerts not written because of storm suppression")
+                .tag("application", "stock-market-gateway")
+                .tag("alert_type", alertType.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void registerConcurrencyLimiter(String group, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("stock_market.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("application", "stock-market-gateway")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("stock_market.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests holding a concurrency limit slot")
+                .tag("application", "stock-market-gateway")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+
+    public void incrementConcurrencyRejected(String group) {
+        Counter.builder("stock_market.concurrency.rejected")
+                .description("Requests shed with 503 because the concurrency limit was reached")
+                .tag("application", "stock-market-gateway")
+                .tag("group", group)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void incrementSlowConsumerDisconnects() {
+        slowConsumerDisconnectsCounter.increment();
+    }
+
+    public void incrementDroppedMessages() {
+        droppedMessagesCounter.increment();
+    }
+
+    public void incrementConflatedMessages() {
+        conflatedMessagesCounter.increment();
+    }
+
+    public void incrementOutboundRejected() {
+        outboundRejectedCounter.increment();
+    }
+
+    public void incrementOutOfOrderTicks() {
+        outOfOrderTicksCounter.increment();
     }
 
     public void recordProcessingTime(long milliseconds) {
         processingTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
 
+    public void recordBroadcastLag(long nanos) {
+        broadcastLagTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     public Timer.Sample startTimer() {
         return Timer.start(meterRegistry);
     }
@@ -58,4 +254,12 @@ public class MetricsService {
     public void stopTimer(Timer.Sample sample) {
         sample.stop(processingTimer);
     }
+
+    private static Duration[] millis(long... values) {
+        Duration[] durations = new Duration[values.length];
+        for (int i = 0; i < values.length; i++) {
+            durations[i] = Duration.ofMillis(values[i]);
+        }
+        return durations;
+    }
 }
\ No newline at end of file
@@ -4,17 +4,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.proiect.dto.AnalyticsPriceData;
 import org.example.proiect.dto.PriceDto;
+import org.example.proiect.event.PriceSavedEvent;
 import org.example.proiect.model.Alert;
 import org.example.proiect.model.Price;
 import org.example.proiect.model.Symbol;
 import org.example.proiect.repository.PriceRepository;
 import org.example.proiect.repository.SymbolRepository;
-import org.springframework.data.domain.PageRequest;
+import org.example.proiect.web.JsonArrayStreamer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,46 +37,109 @@ public class PriceService {
 
     private final PriceRepository priceRepository;
     private final SymbolRepository symbolRepository;
-    private final AlertService alertService;
-    private final WebSocketService webSocketService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataVersion dataVersion;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final SingleFlight singleFlight;
+    private final PlatformTransactionManager transactionManager;
+    private final MetricsService metricsService;
+
+    @Value("${prices.batch.max-tickers:100}")
+    private int maxBatchTickers;
+
+    @Value("${prices.batch.max-limit:1000}")
+    private int maxBatchLimit;
 
     public List<PriceDto> getLatestPrices() {
-        return priceRepository.findLatestPricesForAllSymbols().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return singleFlight.execute("latest_prices", List.of(), () ->
+                priceRepository.findLatestPricesForAllSymbols().stream()
+                        .map(this::toDto)
+                        .collect(Collectors.toList()));
     }
 
-    public List<PriceDto> getPriceHistory(String ticker, int limit) {
-        return priceRepository.findByTickerOrderByTimestampDesc(ticker.toUpperCase(), PageRequest.of(0, limit))
-                .stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+    /**
+     * Newest first, streamed from a cursor so large limits keep memory flat. A limit above
+     * {@code streaming.max-rows} is rejected rather than cut short.
+     */
+    public StreamingResponseBody streamPriceHistory(String ticker, int limit) {
+        jsonArrayStreamer.requireWithinMaxRows(limit);
+        String normalized = ticker.toUpperCase();
+        return jsonArrayStreamer.stream(
+                () -> priceRepository.streamByTicker(normalized, Limit.of(Math.max(1, limit))), this::toDto);
     }
 
     public PriceDto getLatestPrice(String ticker) {
-        Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
-                .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
+        return singleFlight.execute("latest_price", ticker.toUpperCase(), () -> {
+            Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
+                    .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
+
+            Price price = priceRepository.findTopBySymbolOrderByTimestampDesc(symbol)
+                    .orElseThrow(() -> new RuntimeException("No price data for: " + ticker));
 
-        Price price = priceRepository.findTopBySymbolOrderByTimestampDesc(symbol)
-                .orElseThrow(() -> new RuntimeException("No price data for: " + ticker));
+            return toDto(price);
+        });
+    }
+
+    /**
+     * Latest prices of several symbols at once, newest first and grouped by ticker in the
+     * requested order: one symbol lookup and one price query instead of one of each per
+     * symbol.
+     */
+    public Map<String, List<PriceDto>> getPriceHistories(List<String> tickers, LocalDateTime since, int limit) {
+        List<String> normalized = tickers.stream()
+                .map(String::trim)
+                .filter(ticker -> !ticker.isEmpty())
+                .map(String::toUpperCase)
+                .distinct()
+                .toList();
+        if (normalized.isEmpty()) {
+            throw new RuntimeException("At least one ticker is required");
+        }
+        if (normalized.size() > maxBatchTickers) {
+            throw new RuntimeException("At most " + maxBatchTickers + " tickers per request");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, maxBatchLimit));
 
-        return toDto(price);
+        // The transaction starts inside the flight, so coalesced callers wait without a connection
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return singleFlight.execute("price_histories", List.of(normalized, since, boundedLimit),
+                () -> readOnly.execute(status -> loadPriceHistories(normalized, since, boundedLimit)));
     }
 
-    public List<PriceDto> getRecentVariations(String ticker, int hours) {
+    private Map<String, List<PriceDto>> loadPriceHistories(List<String> normalized, LocalDateTime since, int limit) {
+        List<Symbol> symbols = symbolRepository.findByTickerIn(normalized);
+        if (symbols.size() < normalized.size()) {
+            Set<String> found = symbols.stream().map(Symbol::getTicker).collect(Collectors.toSet());
+            String missing = normalized.stream().filter(ticker -> !found.contains(ticker))
+                    .collect(Collectors.joining(", "));
+            throw new RuntimeException("Symbol not found: " + missing);
+        }
+
+        Map<String, List<PriceDto>> byTicker = new LinkedHashMap<>();
+        normalized.forEach(ticker -> byTicker.put(ticker, new ArrayList<>()));
+        // Symbols are already in the persistence context, so mapping triggers no further queries
+        priceRepository.findLatestPerSymbol(symbols.stream().map(Symbol::getId).toList(),
+                        since, limit)
+                .forEach(price -> byTicker.get(price.getSymbol().getTicker()).add(toDto(price)));
+        return byTicker;
+    }
+
+    public StreamingResponseBody streamRecentVariations(String ticker, int hours) {
+        // Resolved up front: once streaming starts the status can no longer change
         Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
                 .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
 
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return priceRepository.findRecentPrices(symbol, since).stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return jsonArrayStreamer.stream(() -> priceRepository.streamRecentPrices(symbol, since), this::toDto);
     }
 
     @Transactional
     public PriceDto savePriceFromAnalytics(AnalyticsPriceData data) {
+        long started = System.nanoTime();
         Symbol symbol = symbolRepository.findByTicker(data.getTicker().toUpperCase())
                 .orElseThrow(() -> new RuntimeException("Symbol not found: " + data.getTicker()));
+        metricsService.recordStage(MetricsService.IngestionStage.SYMBOL_RESOLUTION, System.nanoTime() - started);
 
         Price price = Price.builder()
                 .symbol(symbol)
@@ -75,24 +151,42 @@ public class PriceService {
                 .timestamp(data.getTimestamp() != null ? data.getTimestamp() : LocalDateTime.now())
                 .build();
 
+        started = System.nanoTime();
         price = priceRepository.save(price);
+        metricsService.recordStage(MetricsService.IngestionStage.PERSIST, System.nanoTime() - started);
+        timeCommit();
+        dataVersion.bump();
         log.debug("Saved price for {}: {}", data.getTicker(), data.getPrice());
 
         PriceDto priceDto = toDto(price);
 
-        // Broadcast price update via WebSocket
-        webSocketService.broadcastPriceUpdate(priceDto);
-
-        // Create alert if anomaly detected
-        if (data.isAnomaly()) {
-            Alert.AlertType alertType = determineAlertType(data.getAnomalyType());
-            alertService.createAlert(symbol, alertType, data.getAnomalyMessage(),
-                    data.getPrice(), data.getPercentChange());
-        }
+        // Broadcast and alert creation run after commit, see BroadcastEventListener
+        Alert.AlertType alertType = data.isAnomaly() ? determineAlertType(data.getAnomalyType()) : null;
+        eventPublisher.publishEvent(new PriceSavedEvent(symbol, priceDto, alertType, data.getAnomalyMessage()));
 
         return priceDto;
     }
 
+    /**
+     * Times the commit of the current transaction, flush included, from its before-commit
+     * callback to its after-commit one.
+     */
+    private void timeCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long beforeCommit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                beforeCommit = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                metricsService.recordStage(MetricsService.IngestionStage.COMMIT, System.nanoTime() - beforeCommit);
+            }
+        });
+    }
+
     private Alert.AlertType determineAlertType(String anomalyType) {
         if (anomalyType == null) return Alert.AlertType.ANOMALY;
 
@@ -109,6 +203,7 @@ public class PriceService {
                 .id(price.getId())
                 .ticker(price.getSymbol().getTicker())
                 .symbolName(price.getSymbol().getName())
+                .symbolType(price.getSymbol().getType().name())
                 .price(price.getPrice())
                 .volume(price.getVolume())
                 .movingAverage5(price.getMovingAverage5())
@@ -0,0 +1,275 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.dto.PriceDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Server-Sent Events fan-out of price updates.
+ * Every update gets a sequence number and is kept in a bounded ring buffer, so a client
+ * reconnecting with {@code Last-Event-ID} only receives the updates it missed. Clients
+ * without a usable id get the latest price per ticker from memory instead.
+ * Each subscriber has its own bounded queue, drained by its own sender task, so a stalled
+ * client only delays itself. One whose queue overflows is disconnected rather than
+ * silently skipped; it resumes from the replay buffer when it reconnects.
+ * Locks are {@link ReentrantLock}s rather than monitors so a thread waiting on them does
+ * not pin a virtual thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceStreamService {
+
+    private static final String PRICE_EVENT = "price";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sse.replay-buffer-size:1024}")
+    private int replayBufferSize;
+
+    @Value("${sse.emitter-timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    @Value("${sse.subscriber-queue-capacity:256}")
+    private int subscriberQueueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // Guards the replay buffer and the order in which events reach subscriber queues
+    private final ReentrantLock lock = new ReentrantLock();
+    private PriceEvent[] replayBuffer;
+    private long nextSequence = 1;
+
+    private final Map<String, PriceEvent> latestByTicker = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // At most one task per subscriber at a time, each sending that subscriber's queue in order
+    private ExecutorService senders;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void init() {
+        replayBuffer = new PriceEvent[replayBufferSize];
+        if (virtualThreads) {
+            senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-sender-", 1).factory());
+        } else {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sse-sender-");
+            threadFactory.setDaemon(true);
+            senders = Executors.newCachedThreadPool(threadFactory);
+        }
+
+        Gauge.builder("stock_market.sse.subscribers", subscribers, Set::size)
+                .description("Open Server-Sent Events price streams")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+
+        droppedCounter = Counter.builder("stock_market.sse.dropped_updates")
+                .description("Price updates not pushed live because the subscriber's queue was full; "
+                        + "the subscriber is disconnected")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdownNow();
+    }
+
+    public void publish(PriceDto price) {
+        lock.lock();
+        try {
+            PriceEvent event = new PriceEvent(nextSequence++, price);
+            replayBuffer[(int) (event.sequence % replayBuffer.length)] = event;
+            latestByTicker.put(price.getTicker(), event);
+
+            for (Subscriber subscriber : subscribers) {
+                if (matches(subscriber.tickers, event) && !subscriber.enqueue(event)) {
+                    // Still in the replay buffer, so the client catches up on reconnect
+                    droppedCounter.increment();
+                    log.debug("Disconnecting slow SSE client: {} updates pending", subscriberQueueCapacity);
+                    subscriber.close();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public SseEmitter subscribe(Collection<String> tickers, Long lastEventId) {
+        Set<String> filter = tickers == null ? Set.of() : tickers.stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        Subscriber subscriber = new Subscriber(emitter, filter);
+        emitter.onCompletion(subscriber::discard);
+        emitter.onTimeout(subscriber::discard);
+        emitter.onError(ex -> subscriber.discard());
+
+        // Queued under the stream lock so live updates line up behind the backlog
+        lock.lock();
+        try {
+            subscriber.start(backlog(lastEventId, filter));
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+
+        log.debug("SSE client subscribed (tickers={}, lastEventId={})", filter, lastEventId);
+        return emitter;
+    }
+    private List<PriceEvent> backlog(Long lastEventId, Set<String> filter) {
+        long newest = nextSequence - 1;
+        long oldest = Math.max(1, nextSequence - replayBuffer.length);
+
+        if (lastEventId != null && lastEventId >= oldest - 1 && lastEventId <= newest) {
+            List<PriceEvent> missed = new ArrayList<>();
+            for (long sequence = lastEventId + 1; sequence <= newest; sequence++) {
+                PriceEvent event = replayBuffer[(int) (sequence % replayBuffer.length)];
+                if (matches(filter, event)) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+
+        // New client, or the id fell out of the buffer: start from the latest price per ticker
+        return latestByTicker.values().stream()
+                .filter(event -> matches(filter, event))
+                .sorted(Comparator.comparingLong(PriceEvent::sequence))
+                .toList();
+    }
+
+    private static boolean matches(Set<String> filter, PriceEvent event) {
+        return filter.isEmpty() || filter.contains(event.price.getTicker());
+    }
+
+    private record PriceEvent(long sequence, PriceDto price) {}
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> tickers;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock
+        private final ArrayDeque<PriceEvent> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, Set<String> tickers) {
+            this.emitter = emitter;
+            this.tickers = tickers;
+        }
+
+        /**
+         * Queues the replayed backlog, which may exceed the live queue capacity.
+         */
+        private void start(List<PriceEvent> backlog) {
+            lock.lock();
+            try {
+                pending.addAll(backlog);
+                if (pending.isEmpty()) {
+                    return;
+                }
+                sending = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(this::drain);
+        }
+
+        /**
+         * Returns false if the queue is full.
+         */
+        private boolean enqueue(PriceEvent event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return true;
+                }
+                if (pending.size() >= subscriberQueueCapacity) {
+                    return false;
+                }
+                pending.add(event);
+                if (sending) {
+                    return true;
+                }
+                sending = true;
+            } finally {
+                lock.unlock();
+            }
+            senders.execute(this::drain);
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                PriceEvent event;
+                lock.lock();
+                try {
+                    event = closed ? null : pending.poll();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.sequence))
+                            .name(PRICE_EVENT)
+                            .data(event.price));
+                } catch (IOException | IllegalStateException ex) {
+                    discard();
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Stops delivery and ends the response. Completing waits for a send in progress,
+         * so it happens on a sender thread rather than the caller's.
+         */
+        private void close() {
+            discard();
+            senders.execute(emitter::complete);
+        }
+
+        private void discard() {
+            subscribers.remove(this);
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
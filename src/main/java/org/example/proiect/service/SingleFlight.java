@@ -0,0 +1,87 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads: the first caller for an (operation, key) runs the
+ * loader, callers arriving while it is in flight wait for it and get the same result or
+ * exception. Nothing is cached once the call completes, so a result is never older than
+ * a read that started when the caller arrived.
+ * Results are shared between callers and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+
+    private record Call(String operation, Object key) {}
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${single-flight.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Call, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param operation names the read; also the metric tag, so it must be a constant
+     * @param key       the read's arguments, compared with {@code equals}
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Call call = new Call(operation, key);
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(call, own);
+        if (leader != null) {
+            counter("stock_market.single_flight.coalesced", operation).increment();
+            return (T) await(leader);
+        }
+
+        counter("stock_market.single_flight.executions", operation).increment();
+        try {
+            T result = loader.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(call, own);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's own exception so it maps to the same response
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return Counter.builder(name)
+                .description("Identical concurrent reads, by whether they ran or joined one in flight")
+                .tag("application", "stock-market-gateway")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -17,17 +17,22 @@ import java.util.stream.Collectors;
 public class SymbolService {
 
     private final SymbolRepository symbolRepository;
+    private final DataVersion dataVersion;
+    private final SingleFlight singleFlight;
 
     public List<SymbolDto> getAllSymbols() {
-        return symbolRepository.findAll().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
+        return singleFlight.execute("all_symbols", List.of(), () ->
+                symbolRepository.findAll().stream()
+                        .map(this::toDto)
+                        .collect(Collectors.toList()));
     }
 
     public SymbolDto getSymbolByTicker(String ticker) {
-        Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
-                .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
-        return toDto(symbol);
+        return singleFlight.execute("symbol", ticker.toUpperCase(), () -> {
+            Symbol symbol = symbolRepository.findByTicker(ticker.toUpperCase())
+                    .orElseThrow(() -> new RuntimeException("Symbol not found: " + ticker));
+            return toDto(symbol);
+        });
     }
 
     public Symbol getSymbolEntityByTicker(String ticker) {
@@ -48,6 +53,7 @@ public class SymbolService {
                 .build();
 
         symbol = symbolRepository.save(symbol);
+        dataVersion.bump();
         log.info("Created new symbol: {}", symbol.getTicker());
         return toDto(symbol);
     }
@@ -0,0 +1,220 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.model.AlertReadCursor;
+import org.example.proiect.repository.AlertReadCursorRepository;
+import org.example.proiect.repository.AlertRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory unread alert count per user, so polling the count does not hit the database.
+ * A user's count is loaded on first access and kept up to date by alert creation and
+ * read operations, applied once their transaction commits. Counts are periodically
+ * reconciled with the database, evicted when idle, and pushed to the user's WebSocket
+ * session whenever they changed. A change applied while a count is being loaded is added
+ * to the loaded value, so neither the first load nor a reconcile drops it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadAlertCounter {
+
+    private final AlertRepository alertRepository;
+    private final AlertReadCursorRepository alertReadCursorRepository;
+    private final WebSocketService webSocketService;
+    private final MeterRegistry meterRegistry;
+    private final DataVersion dataVersion;
+
+    @Value("${alerts.unread-count.idle-eviction-ms:900000}")
+    private long idleEvictionMillis;
+
+    private final Map<Long, UserCount> byUser = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("stock_market.alerts.unread_counters", byUser, Map::size)
+                .description("Users with a cached unread alert count")
+                .tag("application", "stock-market-gateway")
+                .register(meterRegistry);
+    }
+
+    public long get(Long userId, String username) {
+        UserCount userCount = byUser.get(userId);
+        if (userCount == null) {
+            // Published before loading, so alerts created during the load are recorded on it
+            UserCount created = new UserCount(username);
+            UserCount existing = byUser.putIfAbsent(userId, created);
+            userCount = existing != null ? existing : created;
+        }
+        if (!userCount.isLoaded()) {
+            // Counted outside computeIfAbsent, whose bin monitor would pin a virtual thread waiting for a connection
+            reload(userId, userCount);
+        }
+        userCount.lastAccess = System.currentTimeMillis();
+        return userCount.get();
+    }
+
+    /**
+     * @param ownerId the user a rule alert belongs to, or {@code null} for an alert every user sees
+     */
+    public void alertCreated(Long ownerId) {
+        afterCommit(() -> {
+            if (ownerId == null) {
+                byUser.values().forEach(userCount -> userCount.add(1));
+                return;
+            }
+            UserCount userCount = byUser.get(ownerId);
+            if (userCount != null) {
+                userCount.add(1);
+            }
+        });
+    }
+
+    public void markedRead(Long userId, long alerts) {
+        if (alerts == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            UserCount userCount = byUser.get(userId);
+            if (userCount != null) {
+                userCount.add(-alerts);
+            }
+        });
+    }
+
+    public void markedAllRead(Long userId) {
+        afterCommit(() -> {
+            UserCount userCount = byUser.get(userId);
+            if (userCount != null) {
+                userCount.reset();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${alerts.unread-count.reconcile-interval-ms:60000}",
+            initialDelayString = "${alerts.unread-count.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long idleSince = System.currentTimeMillis() - idleEvictionMillis;
+        byUser.entrySet().removeIf(entry -> entry.getValue().lastAccess < idleSince);
+
+        byUser.forEach(this::reload);
+    }
+
+    // Coalesces bursts (e.g. an alert storm) into at most one push per user and interval
+    @Scheduled(fixedDelayString = "${alerts.unread-count.push-interval-ms:500}")
+    public void pushIfChanged() {
+        byUser.values().forEach(userCount -> {
+            if (!userCount.isLoaded()) {
+                return;
+            }
+            long current = userCount.get();
+            if (userCount.lastPushed.getAndSet(current) != current) {
+                webSocketService.sendUnreadCount(userCount.username, current);
+            }
+        });
+    }
+
+    private void reload(Long userId, UserCount userCount) {
+        boolean reconciling = userCount.isLoaded();
+        UserCount.Snapshot snapshot = userCount.snapshot();
+        long actual = load(userId);
+        if (userCount.apply(snapshot, actual) && reconciling) {
+            log.debug("Reconciled unread alert count for {} with database count {}", userCount.username, actual);
+            dataVersion.bump();
+        }
+    }
+
+    private long load(Long userId) {
+        AlertReadCursor cursor = alertReadCursorRepository.findById(userId)
+                .orElseGet(() -> AlertReadCursor.initial(userId));
+        return alertRepository.countUnread(userId, cursor.getReadUntilTimestamp(), cursor.getReadUntilId());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * A count plus the changes applied to it, so a value loaded from the database can be
+     * brought up to date with the changes made while it was being loaded. Guarded by its
+     * own monitor, which is never held across a query.
+     */
+    private static final class UserCount {
+        private final String username;
+        private final AtomicLong lastPushed = new AtomicLong(-1);
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private long count;
+        private boolean loaded;
+        // Sum of every increment and decrement so far, and number of resets to zero
+        private long deltas;
+        private long resets;
+
+        private UserCount(String username) {
+            this.username = username;
+        }
+
+        record Snapshot(long deltas, long resets) {
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(deltas, resets);
+        }
+
+        /**
+         * Sets the count to a value loaded after {@code snapshot} was taken, plus the
+         * changes applied since. Returns whether the count changed; a reset since the
+         * snapshot already gave an exact count and is kept.
+         */
+        synchronized boolean apply(Snapshot snapshot, long loadedCount) {
+            if (resets != snapshot.resets()) {
+                return false;
+            }
+            long previous = count;
+            // Never negative, even if a decrement was already part of the loaded count
+            count = Math.max(0, loadedCount + deltas - snapshot.deltas());
+            loaded = true;
+            return count != previous;
+        }
+
+        synchronized void add(long delta) {
+            deltas += delta;
+            count = Math.max(0, count + delta);
+        }
+
+        synchronized void reset() {
+            resets++;
+            count = 0;
+            loaded = true;
+        }
+
+        synchronized long get() {
+            return count;
+        }
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.proiect.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.repository.UserRepository;
+import org.example.proiect.security.TokenEpochs;
+import org.example.proiect.security.UserDetailsCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Both operations update single columns in place rather than saving the whole row, so a
+ * concurrent disable and revoke cannot lose each other's changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserAdminService {
+
+    private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenEpochs tokenEpochs;
+
+    /**
+     * Disabling a user also revokes their stateless tokens, so they stay revoked after
+     * the user is enabled again.
+     */
+    @Transactional
+    public void setActive(String username, boolean active) {
+        if (userRepository.updateActive(username, active) == 0) {
+            throw new RuntimeException("User not found: " + username);
+        }
+        Integer epoch = active ? null : incrementTokenEpoch(username);
+
+        // Evicted once committed, so the next request reloads the new state
+        afterCommit(() -> {
+            userDetailsCache.evict(username);
+            if (epoch != null) {
+                tokenEpochs.bumped(username, epoch);
+            }
+        });
+        log.info("User {} {}", username, active ? "enabled" : "disabled");
+    }
+
+    /**
+     * Revokes every token issued to the user so far. Tokens verified against the database
+     * (stateless mode off) are unaffected while the user stays enabled.
+     */
+    @Transactional
+    public void revokeTokens(String username) {
+        int epoch = incrementTokenEpoch(username);
+
+        afterCommit(() -> tokenEpochs.bumped(username, epoch));
+        log.info("Revoked tokens of user {} (epoch {})", username, epoch);
+    }
+
+    private int incrementTokenEpoch(String username) {
+        if (userRepository.incrementTokenEpoch(username) == 0) {
+            throw new RuntimeException("User not found: " + username);
+        }
+        // Read back in the same transaction, which holds the row lock taken by the increment
+        return userRepository.findTokenEpochByUsername(username).orElseThrow();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -4,27 +4,42 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.proiect.dto.AlertDto;
 import org.example.proiect.dto.PriceDto;
+import org.example.proiect.websocket.FilteredPriceBroadcaster;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final PriceStreamService priceStreamService;
+    private final FilteredPriceBroadcaster filteredPriceBroadcaster;
 
     private static final String PRICES_TOPIC = "/topic/prices";
     private static final String ALERTS_TOPIC = "/topic/alerts";
+    private static final String ALERTS_QUEUE = "/queue/alerts";
+    private static final String UNREAD_COUNT_QUEUE = "/queue/alerts/unread-count";
     private static final String PRICE_TOPIC_PREFIX = "/topic/price/";
+    // Carried as a STOMP header so slow sessions can conflate /topic/prices per ticker
+    private static final String TICKER_HEADER = "ticker";
 
     public void broadcastPriceUpdate(PriceDto price) {
         // Broadcast to general prices topic
-        messagingTemplate.convertAndSend(PRICES_TOPIC, price);
+        messagingTemplate.convertAndSend(PRICES_TOPIC, price, Map.of(TICKER_HEADER, price.getTicker()));
 
         // Broadcast to specific symbol topic
         messagingTemplate.convertAndSend(PRICE_TOPIC_PREFIX + price.getTicker(), price);
 
+        // Deliver to filtered subscriptions that match this tick
+        filteredPriceBroadcaster.broadcast(price);
+
+        // Feed Server-Sent Events subscribers
+        priceStreamService.publish(price);
+
         log.debug("Broadcasted price update for {}: {}", price.getTicker(), price.getPrice());
     }
 
@@ -33,6 +48,16 @@ public class WebSocketService {
         log.info("Broadcasted alert for {}: {}", alert.getTicker(), alert.getMessage());
     }
 
+    // Alerts raised by a user's own rule go only to that user
+    public void sendAlert(String username, AlertDto alert) {
+        sendToUser(username, ALERTS_QUEUE, alert);
+        log.info("Sent alert for {} to {}: {}", alert.getTicker(), username, alert.getMessage());
+    }
+
+    public void sendUnreadCount(String username, long count) {
+        sendToUser(username, UNREAD_COUNT_QUEUE, Map.of("count", count));
+    }
+
     public void sendToUser(String username, String destination, Object payload) {
         messagingTemplate.convertAndSendToUser(username, destination, payload);
     }
@@ -0,0 +1,102 @@
+package org.example.proiect.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams query results as a JSON array: rows come from a database cursor inside a
+ * read-only transaction and are written one by one, so neither the entity list nor the
+ * serialized body is ever held in memory. Each entity is detached once written to keep
+ * the persistence context from growing with the result.
+ * <p>
+ * The transaction holds a pooled connection while the client reads, so a stream is bounded:
+ * at most {@code streaming.max-rows} rows, and {@code streaming.timeout-seconds} overall,
+ * applied as the query timeout and checked between rows. Callers with a row limit check it
+ * up front with {@link #requireWithinMaxRows(long)}. A stream that still hits either bound
+ * is aborted without closing the array, so the client gets invalid JSON rather than a
+ * well-formed array that is silently missing rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JsonArrayStreamer {
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${streaming.max-rows:10000}")
+    private long maxRows;
+
+    @Value("${streaming.timeout-seconds:30}")
+    private int timeoutSeconds;
+
+    /**
+     * Rejects a requested row count above {@code streaming.max-rows}, while an error status
+     * can still be sent.
+     */
+    public void requireWithinMaxRows(long limit) {
+        if (limit > maxRows) {
+            throw new RuntimeException("Limit must be at most " + maxRows);
+        }
+    }
+
+    public <T> StreamingResponseBody stream(Supplier<Stream<T>> rows, Function<T, ?> toDto) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout(timeoutSeconds);
+        return out -> readOnly.executeWithoutResult(status -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            // Neither closes the array nor the servlet stream when an abort unwinds
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator generator = objectMapper.createGenerator(out)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                         .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.writeStartArray();
+                long written = 0;
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    if (written++ >= maxRows) {
+                        log.warn("Aborting a streamed response with more than {} rows", maxRows);
+                        throw new RuntimeException("Stream exceeded " + maxRows + " rows");
+                    }
+                    if (System.nanoTime() - deadline > 0) {
+                        log.warn("Aborting a streamed response still running after {} s", timeoutSeconds);
+                        throw new TransactionTimedOutException("Stream exceeded " + timeoutSeconds + " s");
+                    }
+                    write(generator, toDto.apply(row));
+                    entityManager.detach(row);
+                }
+                generator.writeEndArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void write(JsonGenerator generator, Object value) {
+        try {
+            generator.writeObject(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
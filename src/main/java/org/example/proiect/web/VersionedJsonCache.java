@@ -0,0 +1,103 @@
+package org.example.proiect.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.example.proiect.security.ExpiringCache;
+import org.example.proiect.service.DataVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Pre-rendered JSON for polled endpoints, valid for one {@link DataVersion}. While the
+ * version does not move, requests are served from the cached bytes, or answered with 304
+ * when {@code If-None-Match} carries the ETag, without a query or serialization.
+ * A re-render with an unchanged body keeps the previous ETag, so clients keep getting 304
+ * across versions bumped by unrelated data.
+ */
+@Component
+@RequiredArgsConstructor
+public class VersionedJsonCache {
+
+    private record Rendered(long version, String etag, byte[] body) {}
+
+    private final DataVersion dataVersion;
+    private final ObjectMapper objectMapper;
+
+    @Value("${http.rendered-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${http.rendered-cache.ttl-ms:600000}")
+    private long ttlMillis;
+
+    private ExpiringCache<String, Rendered> entries;
+
+    @PostConstruct
+    public void init() {
+        entries = new ExpiringCache<>(maxEntries);
+    }
+
+    /**
+     * @param key         identifies the resource, including the user for per-user data
+     * @param ifNoneMatch the request's {@code If-None-Match} header, may be {@code null}
+     * @param loader      produces the body when the cached rendering is stale
+     */
+    public ResponseEntity<byte[]> respond(String key, String ifNoneMatch, Supplier<?> loader) {
+        // Read before loading: data newer than the version is re-rendered on the next bump
+        long version = dataVersion.current();
+        Rendered rendered = entries.get(key);
+        if (rendered == null || rendered.version() != version) {
+            byte[] body = render(loader.get());
+            String etag = rendered != null && Arrays.equals(rendered.body(), body)
+                    ? rendered.etag()
+                    : "\"" + Long.toHexString(version) + "\"";
+            rendered = new Rendered(version, etag, body);
+            entries.put(key, rendered, System.currentTimeMillis() + ttlMillis);
+        }
+
+        if (matches(ifNoneMatch, rendered.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(rendered.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.AUTHORIZATION)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(rendered.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.body());
+    }
+
+    private byte[] render(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not render response", e);
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
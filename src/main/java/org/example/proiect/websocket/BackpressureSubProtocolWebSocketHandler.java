@@ -0,0 +1,75 @@
+package org.example.proiect.websocket;
+
+import org.example.proiect.service.MetricsService;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SubProtocolWebSocketHandler} that decorates every session with a
+ * {@link SlowConsumerSessionDecorator} and keeps track of them for buffer metrics and for
+ * flushing conflated frames.
+ */
+public class BackpressureSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+    private final SlowConsumerPolicy policy;
+    private final int thresholdBytes;
+    private final MetricsService metricsService;
+
+    private final Map<String, SlowConsumerSessionDecorator> sessions = new ConcurrentHashMap<>();
+
+    public BackpressureSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                                   SubscribableChannel clientOutboundChannel,
+                                                   SlowConsumerPolicy policy, int thresholdBytes,
+                                                   MetricsService metricsService) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.policy = policy;
+        this.thresholdBytes = thresholdBytes;
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        SlowConsumerSessionDecorator decorated = new SlowConsumerSessionDecorator(session,
+                getSendTimeLimit(), getSendBufferSizeLimit(), policy, thresholdBytes, metricsService);
+        sessions.put(session.getId(), decorated);
+        return decorated;
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        sessions.remove(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.slow-consumer.flush-interval-ms:100}")
+    public void flushConflated() {
+        sessions.values().forEach(SlowConsumerSessionDecorator::flushIfDrained);
+    }
+
+    public int getOpenSessionCount() {
+        return sessions.size();
+    }
+
+    public long getTotalBufferedBytes() {
+        long total = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            total += session.getBufferSize();
+        }
+        return total;
+    }
+
+    public long getMaxBufferedBytes() {
+        long max = 0;
+        for (SlowConsumerSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getBufferSize());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.proiect.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.model.Symbol;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Sends a price tick straight to the client outbound channel for every matching filtered
+ * subscription, bypassing the broker. The payload is serialized once per tick and only
+ * when at least one subscription matches.
+ */
+@Component
+@Slf4j
+public class FilteredPriceBroadcaster {
+
+    private final FilteredPriceSubscriptionRegistry registry;
+    private final MessageChannel clientOutboundChannel;
+    private final ObjectMapper objectMapper;
+
+    public FilteredPriceBroadcaster(FilteredPriceSubscriptionRegistry registry,
+                                    @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                    ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.objectMapper = objectMapper;
+    }
+
+    public void broadcast(PriceDto price) {
+        Symbol.AssetType assetType = price.getSymbolType() != null
+                ? Symbol.AssetType.valueOf(price.getSymbolType()) : null;
+        double percentChange = price.getPercentChange() != null ? price.getPercentChange().doubleValue() : 0;
+
+        List<FilteredPriceSubscriptionRegistry.Subscription> matches =
+                registry.match(price.getTicker(), assetType, percentChange);
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(price);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize price update for {}: {}", price.getTicker(), e.getMessage());
+            return;
+        }
+
+        for (FilteredPriceSubscriptionRegistry.Subscription subscription : matches) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setSessionId(subscription.sessionId());
+            accessor.setSubscriptionId(subscription.subscriptionId());
+            accessor.setDestination(FilteredPriceSubscriptionInterceptor.FILTERED_PRICES_DESTINATION);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setNativeHeader("ticker", price.getTicker());
+            clientOutboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        }
+        log.debug("Sent filtered price update for {} to {} subscriptions", price.getTicker(), matches.size());
+    }
+}
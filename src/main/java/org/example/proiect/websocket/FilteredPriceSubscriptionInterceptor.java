@@ -0,0 +1,107 @@
+package org.example.proiect.websocket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.model.Symbol;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Registers filters for SUBSCRIBE frames on {@link #FILTERED_PRICES_DESTINATION}.
+ * The filter is read from the optional {@code min-percent-change}, {@code asset-types}
+ * and {@code tickers} headers (comma-separated lists, case-insensitive). A header that
+ * does not parse rejects the SUBSCRIBE with an ERROR frame naming it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FilteredPriceSubscriptionInterceptor implements ChannelInterceptor {
+
+    public static final String FILTERED_PRICES_DESTINATION = "/topic/prices.filtered";
+
+    private static final String MIN_PERCENT_CHANGE_HEADER = "min-percent-change";
+    private static final String ASSET_TYPES_HEADER = "asset-types";
+    private static final String TICKERS_HEADER = "tickers";
+
+    private final FilteredPriceSubscriptionRegistry registry;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null || accessor.getSessionId() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.SUBSCRIBE && FILTERED_PRICES_DESTINATION.equals(accessor.getDestination())) {
+            PriceFilter filter = parseFilter(message, accessor);
+            registry.register(accessor.getSessionId(), accessor.getSubscriptionId(), filter);
+            log.debug("Session {} subscribed to filtered prices: {}", accessor.getSessionId(), filter);
+        } else if (command == StompCommand.UNSUBSCRIBE) {
+            registry.unregister(accessor.getSessionId(), accessor.getSubscriptionId());
+        } else if (command == StompCommand.DISCONNECT) {
+            registry.unregisterSession(accessor.getSessionId());
+        }
+        return message;
+    }
+
+    private static PriceFilter parseFilter(Message<?> message, StompHeaderAccessor accessor) {
+        double minChange = parseMinChange(message, accessor.getFirstNativeHeader(MIN_PERCENT_CHANGE_HEADER));
+        Set<Symbol.AssetType> assetTypes = split(accessor.getFirstNativeHeader(ASSET_TYPES_HEADER)).stream()
+                .map(type -> parseAssetType(message, type))
+                .collect(Collectors.toUnmodifiableSet());
+        Set<String> tickers = split(accessor.getFirstNativeHeader(TICKERS_HEADER));
+
+        return new PriceFilter(minChange, assetTypes, tickers);
+    }
+
+    private static double parseMinChange(Message<?> message, String header) {
+        if (header == null || header.isBlank()) {
+            return 0;
+        }
+        double value;
+        try {
+            value = Double.parseDouble(header.trim());
+        } catch (NumberFormatException ex) {
+            value = Double.NaN;
+        }
+        // NaN would silently match no tick at all
+        if (!Double.isFinite(value)) {
+            throw new MessagingException(message, "Invalid " + MIN_PERCENT_CHANGE_HEADER + " header '" + header
+                    + "': expected a finite number");
+        }
+        return Math.abs(value);
+    }
+
+    private static Symbol.AssetType parseAssetType(Message<?> message, String type) {
+        try {
+            return Symbol.AssetType.valueOf(type);
+        } catch (IllegalArgumentException ex) {
+            throw new MessagingException(message, "Invalid " + ASSET_TYPES_HEADER + " header: unknown asset type '"
+                    + type + "', expected one of " + Arrays.toString(Symbol.AssetType.values()));
+        }
+    }
+
+    private static Set<String> split(String header) {
+        if (header == null || header.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(value -> value.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
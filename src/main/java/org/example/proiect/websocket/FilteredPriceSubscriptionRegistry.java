@@ -0,0 +1,143 @@
+package org.example.proiect.websocket;
+
+import org.example.proiect.model.Symbol;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of filtered price subscriptions.
+ * Subscriptions with a watchlist are indexed by ticker, those with only asset types by
+ * asset type, and the rest in a catch-all bucket. Each bucket is ordered by the minimum
+ * percent change, so a tick only visits subscriptions whose threshold it actually meets.
+ * Writes are serialized; lookups on the broadcast path are lock-free.
+ */
+@Component
+public class FilteredPriceSubscriptionRegistry {
+
+    public record Subscription(String sessionId, String subscriptionId, PriceFilter filter) {}
+
+    private final Map<String, Bucket> byTicker = new ConcurrentHashMap<>();
+    private final Map<Symbol.AssetType, Bucket> byAssetType = new ConcurrentHashMap<>();
+    private final Bucket unindexed = new Bucket();
+
+    private final Map<String, Map<String, Subscription>> bySession = new ConcurrentHashMap<>();
+
+    public synchronized void register(String sessionId, String subscriptionId, PriceFilter filter) {
+        unregister(sessionId, subscriptionId);
+
+        Subscription subscription = new Subscription(sessionId, subscriptionId, filter);
+        bucketsFor(filter, true).forEach(bucket -> bucket.add(subscription));
+        bySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, subscription);
+    }
+
+    public synchronized void unregister(String sessionId, String subscriptionId) {
+        Map<String, Subscription> subscriptions = bySession.get(sessionId);
+        if (subscriptions == null) {
+            return;
+        }
+        Subscription subscription = subscriptions.remove(subscriptionId);
+        if (subscription != null) {
+            remove(subscription);
+        }
+        if (subscriptions.isEmpty()) {
+            bySession.remove(sessionId);
+        }
+    }
+
+    public synchronized void unregisterSession(String sessionId) {
+        Map<String, Subscription> subscriptions = bySession.remove(sessionId);
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::remove);
+        }
+    }
+
+    public List<Subscription> match(String ticker, Symbol.AssetType assetType, double percentChange) {
+        double absChange = Math.abs(percentChange);
+        List<Subscription> matches = new ArrayList<>();
+
+        Bucket tickerBucket = byTicker.get(ticker);
+        if (tickerBucket != null) {
+            tickerBucket.collect(absChange, assetType, matches);
+        }
+        Bucket typeBucket = assetType != null ? byAssetType.get(assetType) : null;
+        if (typeBucket != null) {
+            typeBucket.collect(absChange, assetType, matches);
+        }
+        unindexed.collect(absChange, assetType, matches);
+        return matches;
+    }
+
+    public int size() {
+        return bySession.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void remove(Subscription subscription) {
+        for (Bucket bucket : bucketsFor(subscription.filter(), false)) {
+            bucket.remove(subscription);
+        }
+        byTicker.values().removeIf(Bucket::isEmpty);
+        byAssetType.values().removeIf(Bucket::isEmpty);
+    }
+
+    private List<Bucket> bucketsFor(PriceFilter filter, boolean create) {
+        List<Bucket> buckets = new ArrayList<>();
+        if (!filter.tickers().isEmpty()) {
+            for (String ticker : filter.tickers()) {
+                Bucket bucket = create ? byTicker.computeIfAbsent(ticker, t -> new Bucket()) : byTicker.get(ticker);
+                if (bucket != null) {
+                    buckets.add(bucket);
+                }
+            }
+        } else if (!filter.assetTypes().isEmpty()) {
+            for (Symbol.AssetType type : filter.assetTypes()) {
+                Bucket bucket = create ? byAssetType.computeIfAbsent(type, t -> new Bucket()) : byAssetType.get(type);
+                if (bucket != null) {
+                    buckets.add(bucket);
+                }
+            }
+        } else {
+            buckets.add(unindexed);
+        }
+        return buckets;
+    }
+
+    private static final class Bucket {
+        private final ConcurrentSkipListMap<Double, Set<Subscription>> byMinChange = new ConcurrentSkipListMap<>();
+
+        void add(Subscription subscription) {
+            byMinChange.computeIfAbsent(subscription.filter().minPercentChange(), k -> ConcurrentHashMap.newKeySet())
+                    .add(subscription);
+        }
+
+        void remove(Subscription subscription) {
+            Double key = subscription.filter().minPercentChange();
+            Set<Subscription> subscriptions = byMinChange.get(key);
+            if (subscriptions != null) {
+                subscriptions.remove(subscription);
+                if (subscriptions.isEmpty()) {
+                    byMinChange.remove(key);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return byMinChange.isEmpty();
+        }
+
+        void collect(double absChange, Symbol.AssetType assetType, List<Subscription> out) {
+            for (Set<Subscription> subscriptions : byMinChange.headMap(absChange, true).values()) {
+                for (Subscription subscription : subscriptions) {
+                    if (subscription.filter().acceptsType(assetType)) {
+                        out.add(subscription);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.proiect.websocket;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.security.TokenAuthenticator;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions from an {@code Authorization: Bearer} header on CONNECT, so
+ * per-user destinations ({@code /user/queue/...}) can be delivered. Public topics stay
+ * available to sessions without a valid token.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtStompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenAuthenticator tokenAuthenticator;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+
+        String authHeader = accessor.getFirstNativeHeader(AUTHORIZATION_HEADER);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return message;
+        }
+
+        String jwt = authHeader.substring(BEARER_PREFIX.length());
+        try {
+            UserDetails userDetails = tokenAuthenticator.authenticate(jwt);
+            if (userDetails != null) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()));
+                log.debug("Authenticated STOMP session {} as {}", accessor.getSessionId(), userDetails.getUsername());
+            }
+        } catch (Exception e) {
+            log.debug("STOMP authentication failed: {}", e.getMessage());
+        }
+        return message;
+    }
+}
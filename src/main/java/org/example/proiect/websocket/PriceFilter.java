@@ -0,0 +1,19 @@
+package org.example.proiect.websocket;
+
+import org.example.proiect.model.Symbol;
+
+import java.util.Set;
+
+/**
+ * Filter attached to a filtered price subscription. Empty sets mean "any".
+ *
+ * @param minPercentChange minimum absolute percent change a tick must have
+ * @param assetTypes       asset types the subscriber is interested in
+ * @param tickers          watchlist of tickers
+ */
+public record PriceFilter(double minPercentChange, Set<Symbol.AssetType> assetTypes, Set<String> tickers) {
+
+    public boolean acceptsType(Symbol.AssetType type) {
+        return assetTypes.isEmpty() || assetTypes.contains(type);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.proiect.websocket;
+
+/**
+ * What to do with a STOMP session whose send buffer grows past the slow-consumer threshold.
+ */
+public enum SlowConsumerPolicy {
+    /** Discard new MESSAGE frames until the buffer drains. */
+    DROP,
+    /** Keep only the latest MESSAGE frame per destination (and ticker) until the buffer drains. */
+    CONFLATE,
+    /** Close the session. */
+    DISCONNECT
+}
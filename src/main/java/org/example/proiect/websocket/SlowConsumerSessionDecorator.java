@@ -0,0 +1,200 @@
+package org.example.proiect.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.proiect.service.MetricsService;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Session decorator that applies a {@link SlowConsumerPolicy} once the send buffer
+ * passes a soft threshold. The send time and buffer size limits inherited from
+ * {@link ConcurrentWebSocketSessionDecorator} remain the hard limit and terminate the session.
+ * With CONFLATE every MESSAGE frame passes through the pending frames, which one thread
+ * at a time hands to the send buffer while it is below the threshold; a frame arriving
+ * meanwhile is left to that thread, so a frame never goes out after a newer one for the
+ * same key. Once the buffered and pending frames pass the threshold only the latest
+ * pending frame per key is kept. Frames
+ * still pending once the buffer drains are sent by {@link #flushIfDrained()} if no
+ * further frame comes.
+ */
+@Slf4j
+public class SlowConsumerSessionDecorator extends ConcurrentWebSocketSessionDecorator {
+
+    private static final String MESSAGE_FRAME = "MESSAGE\n";
+    private static final String DESTINATION_HEADER = "destination:";
+    private static final String TICKER_HEADER = "ticker:";
+
+    private final SlowConsumerPolicy policy;
+    private final int thresholdBytes;
+    private final MetricsService metricsService;
+
+    // Frames not yet in the send buffer in arrival order, only used with CONFLATE. Keyed by
+    // destination/ticker while above the threshold, by arrival number otherwise
+    private final Map<String, WebSocketMessage<?>> pending = new LinkedHashMap<>();
+    // Guarded by pending
+    private boolean draining;
+    private long arrivals;
+    private long pendingBytes;
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                        SlowConsumerPolicy policy, int thresholdBytes,
+                                        MetricsService metricsService) {
+        super(delegate, sendTimeLimit, bufferSizeLimit);
+        this.policy = policy;
+        this.thresholdBytes = thresholdBytes;
+        this.metricsService = metricsService;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        try {
+            if (policy == SlowConsumerPolicy.CONFLATE) {
+                if (isMessageFrame(message)) {
+                    conflate((TextMessage) message);
+                    drain();
+                    return;
+                }
+                drain();
+            } else if (getBufferSize() > thresholdBytes && isMessageFrame(message)) {
+                handleSlowConsumer();
+                return;
+            }
+            super.sendMessage(message);
+        } catch (SessionLimitExceededException ex) {
+            metricsService.incrementSlowConsumerDisconnects();
+            throw ex;
+        }
+    }
+
+    /**
+     * Sends the conflated frames once the buffer is back under the threshold, so the latest
+     * tick of a quiet ticker is not held back until the next one arrives.
+     */
+    public void flushIfDrained() {
+        if (policy != SlowConsumerPolicy.CONFLATE || getBufferSize() > thresholdBytes || !isOpen()) {
+            return;
+        }
+        try {
+            drain();
+        } catch (SessionLimitExceededException ex) {
+            metricsService.incrementSlowConsumerDisconnects();
+        } catch (IOException ex) {
+            log.debug("Could not flush conflated frames to session {}: {}", getId(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        synchronized (pending) {
+            pending.clear();
+            pendingBytes = 0;
+        }
+        super.close(status);
+    }
+
+    private void handleSlowConsumer() throws IOException {
+        if (policy == SlowConsumerPolicy.DROP) {
+            metricsService.incrementDroppedMessages();
+            return;
+        }
+        log.warn("Closing slow WebSocket session {} with {} bytes buffered", getId(), getBufferSize());
+        metricsService.incrementSlowConsumerDisconnects();
+        close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private void conflate(TextMessage message) {
+        String key = conflationKey(message.getPayload());
+        synchronized (pending) {
+            // The draining thread writes to the socket itself, so a stalled write leaves the frames here
+            if (getBufferSize() + pendingBytes <= thresholdBytes) {
+                // Not a slow consumer: every frame goes out
+                pending.put("#" + ++arrivals, message);
+            } else {
+                // Re-added at the end, behind any older frame for the same key still queued
+                WebSocketMessage<?> replaced = pending.remove(key);
+                if (replaced != null) {
+                    pendingBytes -= replaced.getPayloadLength();
+                    metricsService.incrementConflatedMessages();
+                }
+                pending.put(key, message);
+            }
+            pendingBytes += message.getPayloadLength();
+        }
+    }
+
+    /**
+     * Hands pending frames to the send buffer until none is left or the buffer passes the
+     * threshold. Returns at once if another thread is already doing so; that thread picks
+     * up the frames added meanwhile, in order.
+     */
+    private void drain() throws IOException {
+        synchronized (pending) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        try {
+            WebSocketMessage<?> next;
+            while ((next = nextPending()) != null) {
+                super.sendMessage(next);
+            }
+        } catch (IOException | RuntimeException ex) {
+            synchronized (pending) {
+                draining = false;
+            }
+            throw ex;
+        }
+    }
+
+    // Ends the drain under the same lock that adds frames, so none is left behind unnoticed
+    private WebSocketMessage<?> nextPending() {
+        synchronized (pending) {
+            Iterator<WebSocketMessage<?>> frames = pending.values().iterator();
+            if (!frames.hasNext() || getBufferSize() > thresholdBytes) {
+                draining = false;
+                return null;
+            }
+            WebSocketMessage<?> next = frames.next();
+            frames.remove();
+            pendingBytes -= next.getPayloadLength();
+            return next;
+        }
+    }
+
+    private static boolean isMessageFrame(WebSocketMessage<?> message) {
+        return message instanceof TextMessage text && text.getPayload().startsWith(MESSAGE_FRAME);
+    }
+
+    /**
+     * Builds the conflation key from the STOMP headers, so that /topic/prices keeps
+     * the latest tick per ticker rather than a single tick overall.
+     */
+    private static String conflationKey(String frame) {
+        String destination = "";
+        String ticker = "";
+        int start = MESSAGE_FRAME.length();
+        while (start < frame.length()) {
+            int end = frame.indexOf('\n', start);
+            if (end < 0 || end == start) {
+                break;
+            }
+            if (frame.startsWith(DESTINATION_HEADER, start)) {
+                destination = frame.substring(start + DESTINATION_HEADER.length(), end);
+            } else if (frame.startsWith(TICKER_HEADER, start)) {
+                ticker = frame.substring(start + TICKER_HEADER.length(), end);
+            }
+            start = end + 1;
+        }
+        return destination + "|" + ticker;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.proiect.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Gauges for STOMP sessions, filtered subscriptions, channel queue depth and per-session send buffers.
+ */
+@RequiredArgsConstructor
+public class WebSocketMetricsBinder implements MeterBinder {
+
+    private final BackpressureSubProtocolWebSocketHandler handler;
+    private final FilteredPriceSubscriptionRegistry filteredSubscriptions;
+    private final TaskExecutor inboundExecutor;
+    private final TaskExecutor outboundExecutor;
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder("stock_market.websocket.sessions", handler,
+                        BackpressureSubProtocolWebSocketHandler::getOpenSessionCount)
+                .description("Open WebSocket sessions")
+                .tag("application", "stock-market-gateway")
+                .register(registry);
+
+        Gauge.builder("stock_market.websocket.filtered_subscriptions", filteredSubscriptions,
+                        FilteredPriceSubscriptionRegistry::size)
+                .description("Active filtered price subscriptions")
+                .tag("application", "stock-market-gateway")
+                .register(registry);
+
+        Gauge.builder("stock_market.websocket.queue_depth", inboundExecutor, WebSocketMetricsBinder::queueDepth)
+                .description("Messages waiting on the client channel executor")
+                .tag("application", "stock-market-gateway")
+                .tag("channel", "inbound")
+                .register(registry);
+
+        Gauge.builder("stock_market.websocket.queue_depth", outboundExecutor, WebSocketMetricsBinder::queueDepth)
+                .description("Messages waiting on the client channel executor")
+                .tag("application", "stock-market-gateway")
+                .tag("channel", "outbound")
+                .register(registry);
+
+        Gauge.builder("stock_market.websocket.buffered_bytes", handler,
+                        BackpressureSubProtocolWebSocketHandler::getTotalBufferedBytes)
+                .description("Bytes buffered for sending to WebSocket sessions")
+                .tag("application", "stock-market-gateway")
+                .tag("statistic", "total")
+                .baseUnit("bytes")
+                .register(registry);
+
+        Gauge.builder("stock_market.websocket.buffered_bytes", handler,
+                        BackpressureSubProtocolWebSocketHandler::getMaxBufferedBytes)
+                .description("Bytes buffered for sending to WebSocket sessions")
+                .tag("application", "stock-market-gateway")
+                .tag("statistic", "max_per_session")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static double queueDepth(TaskExecutor executor) {
+        return executor instanceof ThreadPoolTaskExecutor pool ? pool.getQueueSize() : 0;
+    }
+}
@@ -0,0 +1,14 @@
+-- User-defined threshold alert rules
+CREATE TABLE alert_rules (
+                             id BIGSERIAL PRIMARY KEY,
+                             user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                             symbol_id BIGINT NOT NULL REFERENCES symbols(id) ON DELETE CASCADE,
+                             rule_type VARCHAR(30) NOT NULL,
+                             threshold DECIMAL(20, 8) NOT NULL,
+                             is_active BOOLEAN DEFAULT TRUE,
+                             created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Index for rule lookups
+CREATE INDEX idx_alert_rules_user ON alert_rules(user_id);
+CREATE INDEX idx_alert_rules_active ON alert_rules(is_active) WHERE is_active = TRUE;
@@ -0,0 +1,43 @@
+-- Per-user read state: every alert up to the cursor (timestamp, id) is read,
+-- plus the alerts after it that were read individually
+CREATE TABLE alert_read_cursors (
+                                    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+                                    read_until_timestamp TIMESTAMP NOT NULL,
+                                    read_until_id BIGINT NOT NULL,
+                                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- No foreign key to alerts: entries are dropped whenever the cursor moves past them
+CREATE TABLE alert_read_exceptions (
+                                       user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+                                       alert_id BIGINT NOT NULL,
+                                       PRIMARY KEY (user_id, alert_id)
+);
+
+-- Carry the global read flags over to every existing user: the cursor stops just
+-- before the oldest unread alert, and read alerts after it become exceptions
+WITH first_unread AS (
+    SELECT timestamp, id FROM alerts WHERE is_read = FALSE ORDER BY timestamp, id LIMIT 1
+), cursor_alert AS (
+    SELECT a.timestamp, a.id FROM alerts a
+    WHERE NOT EXISTS (SELECT 1 FROM first_unread)
+       OR (a.timestamp, a.id) < (SELECT f.timestamp, f.id FROM first_unread f)
+    ORDER BY a.timestamp DESC, a.id DESC
+    LIMIT 1
+)
+INSERT INTO alert_read_cursors (user_id, read_until_timestamp, read_until_id)
+SELECT u.id, COALESCE(c.timestamp, TIMESTAMP '1970-01-01 00:00:00'), COALESCE(c.id, 0)
+FROM users u LEFT JOIN cursor_alert c ON TRUE;
+
+INSERT INTO alert_read_exceptions (user_id, alert_id)
+SELECT c.user_id, a.id
+FROM alert_read_cursors c
+JOIN alerts a ON (a.timestamp, a.id) > (c.read_until_timestamp, c.read_until_id)
+WHERE a.is_read = TRUE;
+
+-- Unread alerts are now a range scan past the cursor
+DROP INDEX idx_alerts_unread;
+ALTER TABLE alerts DROP COLUMN is_read;
+
+DROP INDEX idx_alerts_timestamp;
+CREATE INDEX idx_alerts_timestamp_id ON alerts(timestamp DESC, id DESC);
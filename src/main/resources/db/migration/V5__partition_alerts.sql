@@ -0,0 +1,59 @@
+-- Partition alerts by month so retention detaches whole partitions instead of running DELETEs
+ALTER TABLE alerts RENAME TO alerts_legacy;
+
+CREATE TABLE alerts (
+                        id BIGINT NOT NULL DEFAULT nextval('alerts_id_seq'),
+                        symbol_id BIGINT NOT NULL REFERENCES symbols(id) ON DELETE CASCADE,
+                        alert_type VARCHAR(50) NOT NULL,
+                        message VARCHAR(500) NOT NULL,
+                        trigger_value DECIMAL(20, 8),
+                        threshold_value DECIMAL(10, 4),
+                        timestamp TIMESTAMP NOT NULL,
+                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                        PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE alerts_id_seq OWNED BY alerts.id;
+
+-- Catches rows outside the pre-created months; the maintenance job keeps it empty
+CREATE TABLE alerts_default PARTITION OF alerts DEFAULT;
+
+-- Archived partitions are moved here once detached
+CREATE SCHEMA IF NOT EXISTS alerts_archive;
+
+-- Creates the partition alerts_pYYYY_MM for the month containing the given date
+CREATE OR REPLACE FUNCTION create_alert_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    from_date DATE := date_trunc('month', month_start)::DATE;
+    to_date DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := 'alerts_p' || to_char(from_date, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF alerts FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, from_date, to_date);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One partition per month from the oldest existing alert up to three months ahead
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT min(timestamp) FROM alerts_legacy), now()))::DATE;
+BEGIN
+    WHILE month <= date_trunc('month', now() + INTERVAL '3 months') LOOP
+        PERFORM create_alert_partition(month);
+        month := (month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO alerts (id, symbol_id, alert_type, message, trigger_value, threshold_value, timestamp, created_at)
+SELECT id, symbol_id, alert_type, message, trigger_value, threshold_value, timestamp, created_at
+FROM alerts_legacy;
+
+DROP TABLE alerts_legacy;
+
+-- Index for alert lookups (created on every partition)
+CREATE INDEX idx_alerts_symbol_timestamp ON alerts(symbol_id, timestamp DESC);
+CREATE INDEX idx_alerts_timestamp_id ON alerts(timestamp DESC, id DESC);
@@ -0,0 +1,2 @@
+-- Bumped to revoke every token issued to the user so far (stateless JWT mode)
+ALTER TABLE users ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Alerts raised by a user's threshold rule belong to that user; NULL means every user sees it
+ALTER TABLE alerts ADD COLUMN user_id BIGINT REFERENCES users(id) ON DELETE CASCADE;
+
+-- Rule thresholds are DECIMAL(20, 8); keep them exact on the alerts they raise
+ALTER TABLE alerts ALTER COLUMN threshold_value TYPE DECIMAL(20, 8);
+
+-- A user's own alerts, newest first (created on every partition)
+CREATE INDEX idx_alerts_user_timestamp_id ON alerts(user_id, timestamp DESC, id DESC) WHERE user_id IS NOT NULL;
@@ -0,0 +1,11 @@
+-- Retention detaches partitions CONCURRENTLY, which PostgreSQL refuses while a default
+-- partition exists. Rows that landed in it move to their monthly partitions; the
+-- maintenance job creates months ahead of time, so no row needs a default partition.
+ALTER TABLE alerts DETACH PARTITION alerts_default;
+
+SELECT create_alert_partition(month)
+FROM (SELECT DISTINCT date_trunc('month', timestamp)::DATE AS month FROM alerts_default) months;
+
+INSERT INTO alerts SELECT * FROM alerts_default;
+
+DROP TABLE alerts_default;
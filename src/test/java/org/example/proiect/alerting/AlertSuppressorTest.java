@@ -0,0 +1,183 @@
+package org.example.proiect.alerting;
+
+import org.example.proiect.model.Alert;
+import org.example.proiect.model.Symbol;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertSuppressorTest {
+
+    private static final long WINDOW = 1000;
+    private static final Symbol AAPL = Symbol.builder().ticker("AAPL").build();
+    private static final Symbol MSFT = Symbol.builder().ticker("MSFT").build();
+
+    @Test
+    void cooldownWritesOneAlertPerWindowAndKey() {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.COOLDOWN);
+
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 0)).isPresent();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 10)).isEmpty();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_DOWN, 10)).isPresent();
+        assertThat(acquire(suppressor, MSFT, Alert.AlertType.SPIKE_UP, 10)).isPresent();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, WINDOW - 1)).isEmpty();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, WINDOW)).isPresent();
+    }
+
+    @Test
+    void rateLimitWritesUpToMaxPerWindow() {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.RATE_LIMIT);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(acquire(suppressor, AAPL, Alert.AlertType.ANOMALY, i)).isPresent();
+        }
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.ANOMALY, 3)).isEmpty();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.ANOMALY, WINDOW)).isPresent();
+    }
+
+    @Test
+    void exemptTypesAndNoneModeAreNeverSuppressed() {
+        AlertSuppressor cooldown = suppressor(SuppressionMode.COOLDOWN);
+        AlertSuppressor none = suppressor(SuppressionMode.NONE);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(acquire(cooldown, AAPL, Alert.AlertType.THRESHOLD_BREACH, i)).isPresent();
+            assertThat(acquire(none, AAPL, Alert.AlertType.SPIKE_UP, i)).isPresent();
+        }
+    }
+
+    @Test
+    void coalesceSummarizesSuppressedAlertsOnceTheWindowEnds() {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.COALESCE);
+
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 0)).isPresent();
+        for (int i = 1; i <= 3; i++) {
+            assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, "spike " + i, i)).isEmpty();
+        }
+        assertThat(suppressor.drainExpired(WINDOW - 1)).isEmpty();
+
+        // Past the window but not yet drained: still folded into the pending summary
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, "spike 4", WINDOW + 5)).isEmpty();
+
+        List<AlertSuppressor.Summary> summaries = suppressor.drainExpired(WINDOW + 10);
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).symbol()).isSameAs(AAPL);
+        assertThat(summaries.get(0).alertType()).isEqualTo(Alert.AlertType.SPIKE_UP);
+        assertThat(summaries.get(0).suppressed()).isEqualTo(4);
+        assertThat(summaries.get(0).lastMessage()).isEqualTo("spike 4");
+
+        // The summary is the new window's written alert
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, WINDOW + 20)).isEmpty();
+        assertThat(suppressor.drainExpired(2 * WINDOW + 10)).extracting(AlertSuppressor.Summary::suppressed)
+                .containsExactly(1);
+    }
+
+    @Test
+    void releasedPermitGivesTheSlotBack() {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.COOLDOWN);
+
+        Optional<AlertSuppressor.Permit> permit = acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 0);
+        assertThat(permit).isPresent();
+        permit.get().release();
+
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 10)).isPresent();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 20)).isEmpty();
+    }
+
+    @Test
+    void permitFromAnEarlierWindowDoesNotFreeTheCurrentOne() {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.COOLDOWN);
+
+        AlertSuppressor.Permit stale = acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, 0).orElseThrow();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, WINDOW)).isPresent();
+        stale.release();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, WINDOW + 10)).isEmpty();
+
+        // Also once the old window has been dropped and replaced
+        AlertSuppressor.Permit dropped = acquire(suppressor, AAPL, Alert.AlertType.SPIKE_DOWN, 0).orElseThrow();
+        assertThat(suppressor.drainExpired(2 * WINDOW)).isEmpty();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_DOWN, 2 * WINDOW)).isPresent();
+        dropped.release();
+        assertThat(acquire(suppressor, AAPL, Alert.AlertType.SPIKE_DOWN, 2 * WINDOW + 10)).isEmpty();
+    }
+
+    /**
+     * Every attempt is either written or counted in exactly one summary, while windows are
+     * concurrently drained and dropped underneath the callers.
+     */
+    @Test
+    void coalesceLosesNoCountWhileWindowsAreDrainedConcurrently() throws Exception {
+        AlertSuppressor suppressor = suppressor(SuppressionMode.COALESCE);
+        AtomicLong clock = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        AtomicLong summarized = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        int threads = 4;
+        int attemptsPerThread = 50_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?> drainer = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    for (AlertSuppressor.Summary summary : suppressor.drainExpired(clock.addAndGet(WINDOW / 2))) {
+                        summarized.addAndGet(summary.suppressed());
+                    }
+                }
+                return null;
+            });
+            List<Future<?>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                callers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (acquire(suppressor, AAPL, Alert.AlertType.SPIKE_UP, clock.get()).isPresent()) {
+                            written.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> caller : callers) {
+                caller.get();
+            }
+            running.set(false);
+            drainer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (AlertSuppressor.Summary summary : suppressor.drainExpired(clock.get() + 10 * WINDOW)) {
+            summarized.addAndGet(summary.suppressed());
+        }
+
+        assertThat(written.get() + summarized.get()).isEqualTo((long) threads * attemptsPerThread);
+    }
+
+    private static AlertSuppressor suppressor(SuppressionMode mode) {
+        return new AlertSuppressor(mode, WINDOW, 3, Set.of(Alert.AlertType.THRESHOLD_BREACH));
+    }
+
+    private static Optional<AlertSuppressor.Permit> acquire(AlertSuppressor suppressor, Symbol symbol,
+                                                            Alert.AlertType type, long now) {
+        return acquire(suppressor, symbol, type, "alert", now);
+    }
+
+    private static Optional<AlertSuppressor.Permit> acquire(AlertSuppressor suppressor, Symbol symbol,
+                                                            Alert.AlertType type, String message, long now) {
+        return suppressor.tryAcquire(symbol, type, message, BigDecimal.ONE, BigDecimal.TEN, now);
+    }
+}
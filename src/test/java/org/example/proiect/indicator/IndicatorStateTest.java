@@ -0,0 +1,143 @@
+package org.example.proiect.indicator;
+
+import org.example.proiect.dto.IndicatorSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the O(1) updates against indicators recomputed from the full tick history.
+ */
+class IndicatorStateTest {
+
+    private static final IndicatorSettings SETTINGS = new IndicatorSettings(20, 10, 14, 2.0);
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 9, 30);
+    private static final double TOLERANCE = 1e-8;
+
+    @Test
+    void matchesIndicatorsRecomputedFromTheWholeHistory() {
+        IndicatorState state = new IndicatorState("AAPL", SETTINGS);
+        List<Double> prices = new ArrayList<>();
+        List<Double> volumes = new ArrayList<>();
+        Random random = new Random(42);
+        double price = 150;
+
+        for (int i = 0; i < 2_000; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            double volume = 1 + random.nextInt(1000);
+            assertThat(state.update(price, volume, START.plusSeconds(i))).isTrue();
+            prices.add(price);
+            volumes.add(volume);
+
+            assertMatchesReference(state.snapshot(), prices, volumes);
+        }
+    }
+
+    @Test
+    void ignoresTicksNotNewerThanTheLastOne() {
+        IndicatorState state = new IndicatorState("AAPL", SETTINGS);
+        List<Double> prices = new ArrayList<>();
+        List<Double> volumes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            state.update(100 + i % 7, 10, START.plusSeconds(i));
+            prices.add(100.0 + i % 7);
+            volumes.add(10.0);
+        }
+        IndicatorSnapshot before = state.snapshot();
+
+        assertThat(state.update(500, 10, START.plusSeconds(29))).isFalse();
+        assertThat(state.update(500, 10, START.plusSeconds(3))).isFalse();
+
+        assertThat(state.snapshot()).isEqualTo(before);
+        assertMatchesReference(state.snapshot(), prices, volumes);
+    }
+
+    @Test
+    void flatPricesGiveAnRsiOfFiftyAndZeroWidthBands() {
+        IndicatorState state = new IndicatorState("AAPL", SETTINGS);
+        for (int i = 0; i < 40; i++) {
+            state.update(100, 10, START.plusSeconds(i));
+        }
+
+        IndicatorSnapshot snapshot = state.snapshot();
+        assertThat(snapshot.getRsi()).isEqualTo(50);
+        assertThat(snapshot.getBollingerUpper()).isCloseTo(100, within(TOLERANCE));
+        assertThat(snapshot.getBollingerLower()).isCloseTo(100, within(TOLERANCE));
+    }
+
+    private static void assertMatchesReference(IndicatorSnapshot snapshot, List<Double> prices, List<Double> volumes) {
+        int n = prices.size();
+        assertThat(snapshot.getSamples()).isEqualTo(n);
+        assertThat(snapshot.getPrice()).isEqualTo(prices.get(n - 1));
+        assertThat(snapshot.getEma()).isCloseTo(ema(prices), within(TOLERANCE));
+        assertThat(snapshot.getVwap()).isCloseTo(vwap(prices, volumes), within(TOLERANCE));
+
+        if (n < SETTINGS.window()) {
+            assertThat(snapshot.getSma()).isNull();
+            assertThat(snapshot.getBollingerUpper()).isNull();
+        } else {
+            List<Double> window = prices.subList(n - SETTINGS.window(), n);
+            double sma = RollingWindowTest.mean(window);
+            double stdDev = RollingWindowTest.standardDeviation(window);
+            assertThat(snapshot.getSma()).isCloseTo(sma, within(TOLERANCE));
+            assertThat(snapshot.getStdDev()).isCloseTo(stdDev, within(TOLERANCE));
+            assertThat(snapshot.getBollingerUpper()).isCloseTo(sma + SETTINGS.bollingerK() * stdDev, within(TOLERANCE));
+            assertThat(snapshot.getBollingerLower()).isCloseTo(sma - SETTINGS.bollingerK() * stdDev, within(TOLERANCE));
+        }
+
+        if (n <= SETTINGS.rsiPeriod()) {
+            assertThat(snapshot.getRsi()).isNull();
+        } else {
+            assertThat(snapshot.getRsi()).isCloseTo(wilderRsi(prices), within(TOLERANCE));
+        }
+    }
+
+    private static double ema(List<Double> prices) {
+        double alpha = 2.0 / (SETTINGS.emaPeriod() + 1);
+        double ema = prices.get(0);
+        for (int i = 1; i < prices.size(); i++) {
+            ema = alpha * prices.get(i) + (1 - alpha) * ema;
+        }
+        return ema;
+    }
+
+    private static double vwap(List<Double> prices, List<Double> volumes) {
+        double priceVolume = 0;
+        double volume = 0;
+        for (int i = Math.max(0, prices.size() - SETTINGS.window()); i < prices.size(); i++) {
+            priceVolume += prices.get(i) * volumes.get(i);
+            volume += volumes.get(i);
+        }
+        return priceVolume / volume;
+    }
+
+    /**
+     * Wilder's RSI: averages seeded with the simple mean of the first period's gains and
+     * losses, then smoothed with weight 1 / period.
+     */
+    private static double wilderRsi(List<Double> prices) {
+        int period = SETTINGS.rsiPeriod();
+        double averageGain = 0;
+        double averageLoss = 0;
+        for (int i = 1; i <= period; i++) {
+            double change = prices.get(i) - prices.get(i - 1);
+            averageGain += Math.max(change, 0) / period;
+            averageLoss += Math.max(-change, 0) / period;
+        }
+        for (int i = period + 1; i < prices.size(); i++) {
+            double change = prices.get(i) - prices.get(i - 1);
+            averageGain = (averageGain * (period - 1) + Math.max(change, 0)) / period;
+            averageLoss = (averageLoss * (period - 1) + Math.max(-change, 0)) / period;
+        }
+        if (averageLoss == 0) {
+            return averageGain == 0 ? 50 : 100;
+        }
+        return 100 - 100 / (1 + averageGain / averageLoss);
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.proiect.indicator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Checks the incrementally maintained matrix against covariance and correlation computed
+ * directly (two-pass) from the samples in the window.
+ */
+class RollingCovarianceMatrixTest {
+
+    private static final int WINDOW = 50;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void matchesADirectComputationOverTheWindow() {
+        RollingCovarianceMatrix matrix = new RollingCovarianceMatrix(WINDOW);
+        // Enough series for the row tasks to split
+        List<List<Double>> history = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            matrix.add("S" + i);
+            history.add(new ArrayList<>());
+        }
+
+        for (int t = 0; t < 500; t++) {
+            if (t == 120) {
+                // A series added later starts with a flat history
+                matrix.add("LATE");
+                history.add(new ArrayList<>());
+                for (int k = 0; k < t; k++) {
+                    history.get(40).add(0.0);
+                }
+            }
+            double market = random.nextGaussian() * 0.01;
+            double[] sample = new double[matrix.size()];
+            for (int i = 0; i < sample.length; i++) {
+                // Correlated through the shared market move
+                sample[i] = market * (i % 3) + random.nextGaussian() * 0.005;
+                history.get(i).add(sample[i]);
+            }
+            matrix.append(sample);
+            if (t % 97 == 0) {
+                matrix.recompute(pool);
+            }
+
+            assertMatchesDirect(matrix.snapshot(pool, null), history);
+        }
+    }
+
+    @Test
+    void recomputeDiscardsAccumulatedDrift() {
+        RollingCovarianceMatrix matrix = new RollingCovarianceMatrix(WINDOW);
+        List<List<Double>> history = List.of(new ArrayList<>(), new ArrayList<>());
+        matrix.add("A");
+        matrix.add("B");
+        Random random = new Random(7);
+
+        // Large values followed by small ones: the running sums keep the rounding of the large ones
+        for (int t = 0; t < 20_000; t++) {
+            double scale = t < 10_000 ? 1e4 : 1e-3;
+            double a = random.nextGaussian() * scale;
+            double b = a * 0.5 + random.nextGaussian() * scale;
+            matrix.append(new double[]{a, b});
+            history.get(0).add(a);
+            history.get(1).add(b);
+        }
+        matrix.recompute(pool);
+
+        CorrelationSnapshot snapshot = matrix.snapshot(pool, null);
+        assertThat(snapshot.covariance(0, 1)).isCloseTo(covariance(history.get(0), history.get(1)), within(1e-15));
+        assertThat(snapshot.correlation(0, 1)).isCloseTo(correlation(history.get(0), history.get(1)), within(1e-9));
+    }
+
+    @Test
+    void undefinedValuesAreNaN() {
+        RollingCovarianceMatrix matrix = new RollingCovarianceMatrix(WINDOW);
+        matrix.add("A");
+        matrix.add("FLAT");
+        matrix.append(new double[]{0.01, 0});
+
+        CorrelationSnapshot one = matrix.snapshot(pool, null);
+        assertThat(one.volatility()[0]).isNaN();
+        assertThat(one.covariance(0, 1)).isNaN();
+
+        matrix.append(new double[]{-0.02, 0});
+        CorrelationSnapshot two = matrix.snapshot(pool, null);
+        assertThat(two.volatility()[0]).isPositive();
+        assertThat(two.volatility()[1]).isZero();
+        assertThat(two.correlation(0, 1)).isNaN();
+        assertThat(two.correlation(0, 0)).isCloseTo(1, within(1e-12));
+    }
+
+    @Test
+    void rejectsWindowsTooSmallForACovariance() {
+        assertThatThrownBy(() -> new RollingCovarianceMatrix(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertMatchesDirect(CorrelationSnapshot snapshot, List<List<Double>> history) {
+        int samples = Math.min(history.get(0).size(), WINDOW);
+        assertThat(snapshot.samples()).isEqualTo(samples);
+        if (samples < 2) {
+            return;
+        }
+        for (int i = 0; i < history.size(); i++) {
+            List<Double> xs = last(history.get(i));
+            assertThat(snapshot.volatility()[i]).isCloseTo(Math.sqrt(covariance(xs, xs)), within(1e-12));
+            for (int j = 0; j <= i; j++) {
+                List<Double> ys = last(history.get(j));
+                assertThat(snapshot.covariance(i, j)).isCloseTo(covariance(xs, ys), within(1e-12));
+                assertThat(snapshot.covariance(j, i)).isEqualTo(snapshot.covariance(i, j));
+                double expected = correlation(xs, ys);
+                if (Double.isNaN(expected)) {
+                    assertThat(snapshot.correlation(i, j)).isNaN();
+                } else {
+                    assertThat(snapshot.correlation(i, j)).isCloseTo(expected, within(1e-9));
+                }
+            }
+        }
+    }
+
+    private static List<Double> last(List<Double> values) {
+        return values.subList(Math.max(0, values.size() - WINDOW), values.size());
+    }
+
+    private static double covariance(List<Double> xs, List<Double> ys) {
+        xs = last(xs);
+        ys = last(ys);
+        double meanX = RollingWindowTest.mean(xs);
+        double meanY = RollingWindowTest.mean(ys);
+        double sum = 0;
+        for (int k = 0; k < xs.size(); k++) {
+            sum += (xs.get(k) - meanX) * (ys.get(k) - meanY);
+        }
+        return sum / (xs.size() - 1);
+    }
+
+    private static double correlation(List<Double> xs, List<Double> ys) {
+        double scale = Math.sqrt(covariance(xs, xs) * covariance(ys, ys));
+        return scale > 0 ? covariance(xs, ys) / scale : Double.NaN;
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.proiect.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingSumTest {
+
+    private static final int CAPACITY = 20;
+
+    @Test
+    void matchesADirectSumOverTheLastValues() {
+        RollingSum rollingSum = new RollingSum(CAPACITY);
+        List<Double> values = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble() * 1000;
+            rollingSum.add(value);
+            values.add(value);
+
+            assertThat(rollingSum.sum()).isCloseTo(sum(values, CAPACITY), within(1e-6));
+        }
+    }
+
+    /**
+     * Price x volume terms of very different sizes: the running sum must not keep the
+     * rounding error of values that left the window long ago.
+     */
+    @Test
+    void doesNotDriftAfterLargeValuesLeaveTheWindow() {
+        RollingSum rollingSum = new RollingSum(CAPACITY);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            rollingSum.add(random.nextDouble() * 1e12);
+        }
+
+        List<Double> small = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            double value = random.nextDouble();
+            rollingSum.add(value);
+            small.add(value);
+        }
+
+        assertThat(rollingSum.sum()).isCloseTo(sum(small, CAPACITY), within(1e-9));
+    }
+
+    private static double sum(List<Double> values, int last) {
+        double sum = 0;
+        for (int i = Math.max(0, values.size() - last); i < values.size(); i++) {
+            sum += values.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.proiect.indicator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingWindowTest {
+
+    private static final int CAPACITY = 20;
+
+    @Test
+    void matchesADirectComputationOverTheLastSamples() {
+        RollingWindow window = new RollingWindow(CAPACITY);
+        List<Double> values = new ArrayList<>();
+        Random random = new Random(42);
+        double price = 100;
+
+        for (int i = 0; i < 10_000; i++) {
+            price = Math.max(1, price + random.nextGaussian());
+            window.add(price);
+            values.add(price);
+
+            List<Double> last = values.subList(Math.max(0, values.size() - CAPACITY), values.size());
+            assertThat(window.size()).isEqualTo(last.size());
+            assertThat(window.isFull()).isEqualTo(last.size() == CAPACITY);
+            assertThat(window.mean()).isCloseTo(mean(last), within(1e-9));
+            assertThat(window.standardDeviation()).isCloseTo(standardDeviation(last), within(1e-7));
+        }
+    }
+
+    /**
+     * Large prices with small moves: a sum-of-squares variance would lose every digit of
+     * the spread here.
+     */
+    @Test
+    void staysAccurateOnLargePricesWithSmallMoves() {
+        RollingWindow window = new RollingWindow(CAPACITY);
+        List<Double> values = new ArrayList<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            double value = 1e9 + random.nextDouble() * 0.01;
+            window.add(value);
+            values.add(value);
+        }
+
+        List<Double> last = values.subList(values.size() - CAPACITY, values.size());
+        double expected = standardDeviation(last);
+        assertThat(window.mean()).isCloseTo(mean(last), within(1e-6));
+        assertThat(window.standardDeviation()).isCloseTo(expected, within(expected * 1e-3));
+    }
+
+    @Test
+    void flatWindowHasZeroDeviation() {
+        RollingWindow window = new RollingWindow(CAPACITY);
+        for (int i = 0; i < 3 * CAPACITY; i++) {
+            window.add(123.456);
+        }
+
+        assertThat(window.mean()).isCloseTo(123.456, within(1e-9));
+        assertThat(window.standardDeviation()).isCloseTo(0, within(1e-9));
+    }
+
+    @Test
+    void rejectsWindowsTooSmallForADeviation() {
+        assertThatThrownBy(() -> new RollingWindow(1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static double mean(List<Double> values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.size();
+    }
+
+    static double standardDeviation(List<Double> values) {
+        double mean = mean(values);
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / values.size());
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.proiect.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private long now;
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.releaseWithoutSample();
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 0, 10, 2.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 5, 2.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 1, 10, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new AdaptiveConcurrencyLimiter(50, 1, 10, 2.0).getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void growsWhileLatencyStaysAtTheBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 100, 2.0);
+
+        windows(limiter, 10, 100);
+
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void shrinksWhenLatencyExceedsTheTolerance() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 10, 100, 2.0);
+        // Records the 10 ms baseline without moving the limit
+        window(limiter, 10, 19, 0);
+
+        windows(limiter, 30, 1);
+        int afterOne = limiter.getLimit();
+        // limit * 0.8 + (limit * 2 * 10 / 30 + sqrt(limit)) * 0.2
+        assertThat(afterOne).isEqualTo((int) (40 * 0.8 + (40 * 2.0 * 10 / 30 + Math.sqrt(40)) * 0.2));
+
+        // Scaled down by half at most per window, then held at the minimum
+        windows(limiter, 100, 50);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void keepsTheLimitWhileLessThanHalfIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 10, 100, 2.0);
+
+        for (int i = 0; i < 20; i++) {
+            window(limiter, 10, 19, 0);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(40);
+    }
+
+    @Test
+    void fastFailuresDoNotLowerTheBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 1, 100, 2.0);
+
+        // Half of every window fails in 1 ms, the rest succeeds in 10 ms
+        for (int i = 0; i < 100; i++) {
+            window(limiter, 10, limiter.getLimit() / 2, limiter.getLimit() - limiter.getLimit() / 2);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void baselineFollowsALastingChangeInLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(40, 10, 100, 2.0);
+        windows(limiter, 10, 20);
+
+        // Five times slower from now on: shrinks while the old baseline is remembered...
+        windows(limiter, 50, AdaptiveConcurrencyLimiter.BASELINE_WINDOWS - 20);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        // ...and grows again once the slower latency is the baseline
+        windows(limiter, 50, 150);
+        assertThat(limiter.getLimit()).isEqualTo(100);
+    }
+
+    private void windows(AdaptiveConcurrencyLimiter limiter, long rttMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            window(limiter, rttMillis, limiter.getLimit(), 0);
+        }
+    }
+
+    /**
+     * Completes exactly one sample window: {@code succeeded} requests taking
+     * {@code rttMillis} and {@code failed} ones released without a sample, all in flight
+     * together. Needs at least 10 successes, the minimum per window.
+     */
+    private void window(AdaptiveConcurrencyLimiter limiter, long rttMillis, int succeeded, int failed) {
+        for (int i = 0; i < succeeded + failed; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        long rtt = TimeUnit.MILLISECONDS.toNanos(rttMillis);
+        for (int i = 0; i < succeeded - 1; i++) {
+            limiter.release(rtt, now);
+        }
+        for (int i = 0; i < failed; i++) {
+            limiter.releaseWithoutSample();
+        }
+        now += WINDOW;
+        limiter.release(rtt, now);
+        now += WINDOW;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.proiect.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsCacheTest {
+
+    private static final UserDetails ENABLED = User.withUsername("alice").password("x").disabled(false).build();
+    private static final UserDetails DISABLED = User.withUsername("alice").password("x").disabled(true).build();
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final UserDetailsCache cache = cache(userDetailsService);
+
+    @Test
+    void servesRepeatedLookupsFromTheCache() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(ENABLED);
+
+        cache.get("alice");
+        cache.get("alice");
+
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    void evictionForcesAReload() {
+        when(userDetailsService.loadUserByUsername("alice")).thenReturn(ENABLED, DISABLED);
+
+        cache.get("alice");
+        cache.evict("alice");
+
+        assertThat(cache.get("alice").isEnabled()).isFalse();
+    }
+
+    @Test
+    void lookupRacingAnEvictionIsNotCached() {
+        // The user is disabled (and evicted) after the first load read the row
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenAnswer(invocation -> {
+                    cache.evict("alice");
+                    return ENABLED;
+                })
+                .thenReturn(DISABLED);
+
+        assertThat(cache.get("alice").isEnabled()).isTrue();
+
+        assertThat(cache.get("alice").isEnabled()).isFalse();
+        verify(userDetailsService, times(2)).loadUserByUsername("alice");
+    }
+
+    private static UserDetailsCache cache(UserDetailsService userDetailsService) {
+        UserDetailsCache cache = new UserDetailsCache(userDetailsService);
+        ReflectionTestUtils.setField(cache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.proiect.service;
+
+import org.example.proiect.dto.IndicatorSnapshot;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.model.Price;
+import org.example.proiect.repository.PriceRepository;
+import org.example.proiect.repository.SymbolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IndicatorServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 5, 9, 30);
+
+    private final PriceRepository priceRepository = mock(PriceRepository.class);
+    private final MetricsService metricsService = mock(MetricsService.class);
+    // Ticks are broadcast after their commit, so the triggering one is already stored
+    private final List<Price> stored = new ArrayList<>();
+
+    IndicatorServiceTest() {
+        when(priceRepository.findByTickerBeforeOrderByTimestampDesc(eq("AAPL"), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime before = invocation.getArgument(1);
+            return stored.stream()
+                    .filter(price -> price.getTimestamp().isBefore(before))
+                    .sorted(Comparator.comparing(Price::getTimestamp).reversed())
+                    .toList();
+        });
+    }
+
+    @Test
+    void firstTickAfterTheWarmUpIsAppliedNotCountedAsOutOfOrder() {
+        for (int i = 0; i < 5; i++) {
+            store(100 + i, START.plusSeconds(i));
+        }
+        store(110, START.plusSeconds(5));
+
+        IndicatorSnapshot snapshot = service().update(tick(110, START.plusSeconds(5)));
+
+        assertThat(snapshot.getSamples()).isEqualTo(6);
+        assertThat(snapshot.getPrice()).isEqualTo(110);
+        verify(metricsService, never()).incrementOutOfOrderTicks();
+    }
+
+    @Test
+    void countsATickOlderThanTheLastApplied() {
+        store(100, START);
+        IndicatorService service = service();
+        service.update(tick(100, START));
+
+        IndicatorSnapshot snapshot = service.update(tick(90, START.minusSeconds(1)));
+
+        assertThat(snapshot.getPrice()).isEqualTo(100);
+        verify(metricsService).incrementOutOfOrderTicks();
+    }
+
+    private IndicatorService service() {
+        IndicatorService service = new IndicatorService(priceRepository, mock(SymbolRepository.class), metricsService);
+        ReflectionTestUtils.setField(service, "window", 20);
+        ReflectionTestUtils.setField(service, "emaPeriod", 20);
+        ReflectionTestUtils.setField(service, "rsiPeriod", 14);
+        ReflectionTestUtils.setField(service, "bollingerK", 2.0);
+        ReflectionTestUtils.setField(service, "warmupTicks", 100);
+        service.init();
+        return service;
+    }
+
+    private void store(double price, LocalDateTime timestamp) {
+        stored.add(Price.builder()
+                .price(BigDecimal.valueOf(price))
+                .volume(BigDecimal.TEN)
+                .timestamp(timestamp)
+                .build());
+    }
+
+    private static PriceDto tick(double price, LocalDateTime timestamp) {
+        return PriceDto.builder()
+                .ticker("AAPL")
+                .price(BigDecimal.valueOf(price))
+                .volume(BigDecimal.TEN)
+                .timestamp(timestamp)
+                .build();
+    }
+}
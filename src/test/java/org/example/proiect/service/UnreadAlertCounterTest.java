@@ -0,0 +1,80 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.proiect.repository.AlertReadCursorRepository;
+import org.example.proiect.repository.AlertRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Changes are applied outside a transaction here, so they take effect immediately; the
+ * repository answers apply them while the count query is running.
+ */
+class UnreadAlertCounterTest {
+
+    private final AlertReadCursorRepository cursorRepository = mock(AlertReadCursorRepository.class);
+    private final AlertRepository alertRepository = mock(AlertRepository.class);
+    private final UnreadAlertCounter counter = new UnreadAlertCounter(alertRepository, cursorRepository,
+            mock(WebSocketService.class), new SimpleMeterRegistry(), mock(DataVersion.class));
+
+    UnreadAlertCounterTest() {
+        when(cursorRepository.findById(1L)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void keepsAnAlertCreatedDuringTheFirstLoad() {
+        when(alertRepository.countUnread(eq(1L), any(), anyLong())).thenAnswer(invocation -> {
+            counter.alertCreated(null);
+            return 3L;
+        });
+
+        assertThat(counter.get(1L, "user")).isEqualTo(4);
+    }
+
+    @Test
+    void keepsChangesMadeDuringAReconcile() {
+        when(alertRepository.countUnread(eq(1L), any(), anyLong()))
+                .thenReturn(3L)
+                .thenAnswer(invocation -> {
+                    counter.alertCreated(1L);
+                    counter.alertCreated(1L);
+                    counter.markedRead(1L, 1);
+                    return 5L;
+                });
+        counter.get(1L, "user");
+
+        counter.reconcile();
+
+        assertThat(counter.get(1L, "user")).isEqualTo(6);
+    }
+
+    @Test
+    void markAllReadDuringALoadWins() {
+        when(alertRepository.countUnread(eq(1L), any(), anyLong())).thenAnswer(invocation -> {
+            counter.markedAllRead(1L);
+            counter.alertCreated(1L);
+            return 3L;
+        });
+
+        assertThat(counter.get(1L, "user")).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileCorrectsADriftedCount() {
+        when(alertRepository.countUnread(eq(1L), any(), anyLong())).thenReturn(3L, 2L);
+        counter.get(1L, "user");
+        counter.alertCreated(1L);
+
+        counter.reconcile();
+
+        assertThat(counter.get(1L, "user")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.proiect.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.example.proiect.dto.PriceDto;
+import org.example.proiect.repository.AlertReadCursorRepository;
+import org.example.proiect.repository.AlertRepository;
+import org.example.proiect.repository.PriceRepository;
+import org.example.proiect.repository.SymbolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the paths that load state on first access from many virtual threads at once, with
+ * repositories that block like a query waiting for a pooled connection, and fails on any
+ * {@code jdk.VirtualThreadPinned} event: a virtual thread blocked inside a monitor holds
+ * its carrier, and with all carriers held the threads owning connections never run.
+ */
+class VirtualThreadPinningTest {
+
+    private static final Duration QUERY_TIME = Duration.ofMillis(50);
+    private static final int THREADS = 32;
+
+    @Test
+    void indicatorWarmUpDoesNotPin() throws Exception {
+        PriceRepository priceRepository = mock(PriceRepository.class);
+        when(priceRepository.findByTickerBeforeOrderByTimestampDesc(eq("AAPL"), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(QUERY_TIME);
+            return List.of();
+        });
+        IndicatorService indicatorService = new IndicatorService(priceRepository, mock(SymbolRepository.class),
+                mock(MetricsService.class));
+        ReflectionTestUtils.setField(indicatorService, "window", 20);
+        ReflectionTestUtils.setField(indicatorService, "emaPeriod", 20);
+        ReflectionTestUtils.setField(indicatorService, "rsiPeriod", 14);
+        ReflectionTestUtils.setField(indicatorService, "bollingerK", 2.0);
+        ReflectionTestUtils.setField(indicatorService, "warmupTicks", 100);
+        indicatorService.init();
+
+        PriceDto price = PriceDto.builder()
+                .ticker("AAPL")
+                .price(new BigDecimal("100.00"))
+                .volume(BigDecimal.TEN)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        assertThat(pinnedEvents(() -> indicatorService.update(price))).isEmpty();
+    }
+
+    @Test
+    void unreadCountLoadDoesNotPin() throws Exception {
+        AlertReadCursorRepository cursorRepository = mock(AlertReadCursorRepository.class);
+        when(cursorRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(QUERY_TIME);
+            return Optional.empty();
+        });
+        AlertRepository alertRepository = mock(AlertRepository.class);
+        when(alertRepository.countUnread(eq(1L), any(), anyLong())).thenReturn(3L);
+        UnreadAlertCounter counter = new UnreadAlertCounter(alertRepository, cursorRepository,
+                mock(WebSocketService.class), new SimpleMeterRegistry(), mock(DataVersion.class));
+
+        assertThat(pinnedEvents(() -> counter.get(1L, "user"))).isEmpty();
+    }
+
+    private static List<String> pinnedEvents(Runnable firstAccess) throws Exception {
+        List<String> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.add(describe(event)));
+            recording.startAsync();
+
+            CountDownLatch start = new CountDownLatch(1);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < THREADS; i++) {
+                    executor.submit(() -> {
+                        start.await();
+                        firstAccess.run();
+                        return null;
+                    });
+                }
+                start.countDown();
+            }
+            // Flushes and waits until every recorded event has been handled
+            recording.stop();
+        }
+        return pinned;
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getDuration().toMillis() + " ms pinned at "
+                + (event.getStackTrace() != null ? event.getStackTrace().getFrames() : "unknown");
+    }
+}
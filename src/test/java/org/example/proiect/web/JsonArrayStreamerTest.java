@@ -0,0 +1,88 @@
+package org.example.proiect.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JsonArrayStreamerTest {
+
+    private static final int MAX_ROWS = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesEveryRowAsAJsonArray() throws Exception {
+        JsonArrayStreamer streamer = streamer(30);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.stream(() -> IntStream.rangeClosed(1, MAX_ROWS).boxed(), Function.identity()).writeTo(out);
+
+        assertThat(objectMapper.readValue(out.toByteArray(), List.class)).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void rejectsALimitAboveTheCapBeforeStreaming() {
+        JsonArrayStreamer streamer = streamer(30);
+
+        streamer.requireWithinMaxRows(MAX_ROWS);
+        assertThatThrownBy(() -> streamer.requireWithinMaxRows(MAX_ROWS + 1))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining(Integer.toString(MAX_ROWS));
+    }
+
+    @Test
+    void streamOverTheRowCapEndsAsInvalidJson() {
+        JsonArrayStreamer streamer = streamer(30);
+        StreamingResponseBody body = streamer.stream(() -> IntStream.rangeClosed(1, MAX_ROWS + 1).boxed(),
+                Function.identity());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> body.writeTo(out)).hasMessageContaining("rows");
+
+        assertNotAJsonArray(out);
+    }
+
+    @Test
+    void streamPastTheDeadlineEndsAsInvalidJson() {
+        JsonArrayStreamer streamer = streamer(0);
+        StreamingResponseBody body = streamer.stream(() -> IntStream.rangeClosed(1, 3).boxed(), Function.identity());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> body.writeTo(out)).isInstanceOf(TransactionTimedOutException.class);
+
+        assertNotAJsonArray(out);
+    }
+
+    private void assertNotAJsonArray(ByteArrayOutputStream out) {
+        assertThat(out.toString(StandardCharsets.UTF_8)).doesNotEndWith("]");
+        assertThatThrownBy(() -> objectMapper.readValue(out.toByteArray(), List.class))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    private JsonArrayStreamer streamer(int timeoutSeconds) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        JsonArrayStreamer streamer = new JsonArrayStreamer(objectMapper, mock(EntityManager.class), transactionManager);
+        ReflectionTestUtils.setField(streamer, "maxRows", (long) MAX_ROWS);
+        ReflectionTestUtils.setField(streamer, "timeoutSeconds", timeoutSeconds);
+        return streamer;
+    }
+}
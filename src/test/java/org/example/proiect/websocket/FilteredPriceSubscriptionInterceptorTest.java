@@ -0,0 +1,75 @@
+package org.example.proiect.websocket;
+
+import org.example.proiect.model.Symbol;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FilteredPriceSubscriptionInterceptorTest {
+
+    private final FilteredPriceSubscriptionRegistry registry = mock(FilteredPriceSubscriptionRegistry.class);
+    private final FilteredPriceSubscriptionInterceptor interceptor = new FilteredPriceSubscriptionInterceptor(registry);
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void parsesHeadersCaseInsensitively() {
+        interceptor.preSend(subscribe(Map.of(
+                "min-percent-change", "-1.5",
+                "asset-types", "stock, Crypto",
+                "tickers", "aapl,MSFT")), channel);
+
+        verify(registry).register("s1", "sub-0",
+                new PriceFilter(1.5, Set.of(Symbol.AssetType.STOCK, Symbol.AssetType.CRYPTO), Set.of("AAPL", "MSFT")));
+    }
+
+    @Test
+    void missingHeadersMatchEverything() {
+        interceptor.preSend(subscribe(Map.of()), channel);
+
+        verify(registry).register("s1", "sub-0", new PriceFilter(0, Set.of(), Set.of()));
+    }
+
+    @Test
+    void rejectsAMinChangeThatIsNotAFiniteNumber() {
+        for (String value : new String[]{"abc", "NaN", "Infinity"}) {
+            assertThatThrownBy(() -> interceptor.preSend(subscribe(Map.of("min-percent-change", value)), channel))
+                    .isInstanceOf(MessagingException.class)
+                    .hasMessageContaining("min-percent-change")
+                    .hasMessageContaining(value);
+        }
+        verify(registry, never()).register(anyString(), anyString(), any());
+    }
+
+    @Test
+    void rejectsAnUnknownAssetType() {
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(Map.of("asset-types", "stock,bond")), channel))
+                .isInstanceOf(MessagingException.class)
+                .hasMessageContaining("'BOND'")
+                .hasMessageContaining("STOCK");
+        verify(registry, never()).register(anyString(), anyString(), any());
+    }
+
+    private static Message<byte[]> subscribe(Map<String, String> headers) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("s1");
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(FilteredPriceSubscriptionInterceptor.FILTERED_PRICES_DESTINATION);
+        headers.forEach(accessor::addNativeHeader);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.proiect.websocket;
+
+import org.example.proiect.service.MetricsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uses a zero threshold, so the session counts as slow once a frame waits behind the one
+ * being written, and a delegate that holds the first write until released.
+ */
+class SlowConsumerSessionDecoratorTest {
+
+    private final WebSocketSession delegate = mock(WebSocketSession.class);
+    private final MetricsService metricsService = mock(MetricsService.class);
+    private final List<String> written = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    SlowConsumerSessionDecoratorTest() throws Exception {
+        when(delegate.getId()).thenReturn("s1");
+        when(delegate.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            written.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            if (written.size() == 1) {
+                writing.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(delegate).sendMessage(any(WebSocketMessage.class));
+    }
+
+    @Test
+    void keepsTheLatestFramePerTickerWhileSlowAndSendsItInOrder() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerPolicy.CONFLATE);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> send(session, tick("AAPL", 1)));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        send(session, tick("AAPL", 2));
+        send(session, tick("MSFT", 1));
+        send(session, tick("AAPL", 3));
+        send(session, tick("AAPL", 4));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        // The thread that wrote the first frame also sends the ones queued meanwhile
+        assertThat(written).containsExactly(tick("AAPL", 1), tick("AAPL", 2), tick("MSFT", 1), tick("AAPL", 4));
+        verify(metricsService, times(1)).incrementConflatedMessages();
+    }
+
+    @Test
+    void sendsEveryFrameWhileNotSlow() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerPolicy.CONFLATE);
+        release.countDown();
+
+        for (int price = 1; price <= 3; price++) {
+            session.sendMessage(new TextMessage(tick("AAPL", price)));
+        }
+
+        assertThat(written).containsExactly(tick("AAPL", 1), tick("AAPL", 2), tick("AAPL", 3));
+    }
+
+    @Test
+    void dropsFramesWhileSlow() throws Exception {
+        SlowConsumerSessionDecorator session = decorator(SlowConsumerPolicy.DROP);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> send(session, tick("AAPL", 1)));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+        send(session, tick("AAPL", 2));
+        send(session, tick("AAPL", 3));
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertThat(written).containsExactly(tick("AAPL", 1), tick("AAPL", 2));
+        verify(metricsService).incrementDroppedMessages();
+    }
+
+    private SlowConsumerSessionDecorator decorator(SlowConsumerPolicy policy) {
+        return new SlowConsumerSessionDecorator(delegate, 10_000, 1024 * 1024, policy, 0, metricsService);
+    }
+
+    private static void send(SlowConsumerSessionDecorator session, String frame) {
+        try {
+            session.sendMessage(new TextMessage(frame));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String tick(String ticker, int price) {
+        return "MESSAGE\ndestination:/topic/prices\nticker:" + ticker + "\n\n{\"price\":" + price + "}\0";
+    }
+}